@@ -3,8 +3,13 @@ package com.echovenancio.ministack.controllers;
 import java.io.Console;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,10 +21,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
 import com.echovenancio.ministack.models.LoginCredentials;
 import com.echovenancio.ministack.models.RegisterRequest;
 import com.echovenancio.ministack.repository.UserRepository;
 import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.security.PasswordHashingPool;
+import com.echovenancio.ministack.service.MyUserDetailsService;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -29,50 +37,84 @@ public class AuthController {
     private final JWTUtil jwtUtil;
     private final AuthenticationManager authManager;
     private final PasswordEncoder passwordEncoder;
+    private final MyUserDetailsService userDetailsService;
+    private final PasswordHashingPool hashingPool;
 
-    public AuthController(UserRepository userRepo, JWTUtil jwtUtil, AuthenticationManager authManager, PasswordEncoder passwordEncoder) {
+    public AuthController(UserRepository userRepo, JWTUtil jwtUtil, AuthenticationManager authManager,
+            PasswordEncoder passwordEncoder, MyUserDetailsService userDetailsService,
+            PasswordHashingPool hashingPool) {
         this.userRepo = userRepo;
         this.jwtUtil = jwtUtil;
         this.authManager = authManager;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.hashingPool = hashingPool;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> registerHandler(@RequestBody RegisterRequest req) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> registerHandler(@RequestBody RegisterRequest req) {
         try {
             if (!req.getPassword().equals(req.getConfirmPassword())) {
-                return ResponseEntity.badRequest()
-                        .body(Collections.singletonMap("error", "Passwords do not match"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                        .body(Collections.singletonMap("error", "Passwords do not match")));
             }
-            String encodedPass = passwordEncoder.encode(req.getPassword());
-            User user = new User();
-            user.setEmail(req.getEmail());
-            user.setPassword(encodedPass);
-            user.setUsername(req.getUsername());
-            user = userRepo.save(user);
-            String token = jwtUtil.generateToken(user.getEmail());
-            return ResponseEntity.ok(Collections.singletonMap("jwt-token", token));
+            // The request thread is released while the hash is computed.
+            return hashingPool.submit(() -> passwordEncoder.encode(req.getPassword()))
+                    .thenApply(encodedPass -> {
+                        User user = new User();
+                        user.setEmail(req.getEmail());
+                        user.setPassword(encodedPass);
+                        user.setUsername(req.getUsername());
+                        user = userRepo.save(user);
+                        // A cached principal for a previous holder of this email would carry the wrong id.
+                        userDetailsService.evictPrincipal(user.getEmail());
+                        return tokenResponse(jwtUtil.generateToken(
+                                AuthenticatedUser.withUserRole(user.getId(), user.getUsername(), user.getEmail())));
+                    })
+                    .exceptionally(e -> error(500, "Internal server error"));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Collections.singletonMap("error", "Internal server error"));
+            return CompletableFuture.completedFuture(error(500, "Internal server error"));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> loginHandler(@RequestBody LoginCredentials body) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> loginHandler(@RequestBody LoginCredentials body) {
         try {
             UsernamePasswordAuthenticationToken authInputToken = new UsernamePasswordAuthenticationToken(
                     body.getEmail(), body.getPassword());
 
-            authManager.authenticate(authInputToken);
-
-            String token = jwtUtil.generateToken(body.getEmail());
-
-            return ResponseEntity.ok(Collections.singletonMap("jwt-token", token));
-        } catch (AuthenticationException authExc) {
-            return ResponseEntity.status(401).body(Collections.singletonMap("error", "Invalid credentials"));
+            // Checking the password is the hash; an outdated one is replaced on the same thread.
+            return hashingPool.submit(() -> authManager.authenticate(authInputToken))
+                    .thenApply(authentication -> tokenResponse(
+                            jwtUtil.generateToken(userDetailsService.loadPrincipal(body.getEmail()))))
+                    .exceptionally(e -> unwrap(e) instanceof AuthenticationException
+                            ? error(401, "Invalid credentials")
+                            : error(500, "Internal server error"));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Collections.singletonMap("error", "Internal server error"));
+            return CompletableFuture.completedFuture(error(500, "Internal server error"));
         }
     }
 
+    private static ResponseEntity<Map<String, Object>> tokenResponse(String token) {
+        return ResponseEntity.ok(Collections.singletonMap("jwt-token", token));
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(int status, String message) {
+        return ResponseEntity.status(status).body(Collections.singletonMap("error", message));
+    }
+
+    // Every hashing thread is busy and the queue is full: fail now rather than hold the connection.
+    private static ResponseEntity<Map<String, Object>> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Collections.singletonMap("error", "Too many sign-ins in progress, try again shortly"));
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
 }
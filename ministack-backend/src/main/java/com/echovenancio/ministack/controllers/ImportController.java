@@ -0,0 +1,74 @@
+package com.echovenancio.ministack.controllers;
+
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.echovenancio.ministack.models.BulkImportRequest;
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.ImportResult;
+import com.echovenancio.ministack.service.BulkImporter;
+import com.echovenancio.ministack.utils.Result;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    static final int MAX_POSTS = 1000;
+
+    static final int MAX_REPLIES = 50_000;
+
+    /** Lets a caller attribute imported content to other users; without it everything is authored by the caller. */
+    static final String IMPORTER_ROLE = "ROLE_IMPORTER";
+
+    private final BulkImporter importer;
+
+    public ImportController(BulkImporter importer) {
+        this.importer = importer;
+    }
+
+    /**
+     * Imports a batch of posts with nested replies. Posts that fail validation
+     * are skipped and listed in the result; the rest are imported together.
+     * Naming another author through {@code authorEmail} needs the importer role.
+     */
+    @Operation(summary = "Import posts and their replies in bulk", security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/posts")
+    public ResponseEntity<Result<ImportResult, ErrorResponse>> importPosts(@RequestBody BulkImportRequest request,
+            Authentication authentication) {
+        if (request.posts() == null || request.posts().isEmpty() || request.posts().size() > MAX_POSTS) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("A batch must hold between 1 and " + MAX_POSTS + " posts",
+                            "400")));
+        }
+        int replies = request.posts().stream().mapToInt(post -> BulkImporter.countReplies(post.replies())).sum();
+        if (replies > MAX_REPLIES) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("A batch must hold at most " + MAX_REPLIES + " replies",
+                            "400")));
+        }
+        if (!BulkImporter.authoredOnlyBy(request.posts(), authentication.getName()) && !isImporter(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Result.error(new ErrorResponse("You do not have permission to import content as other users",
+                            "403")));
+        }
+        Result<ImportResult, ErrorResponse> result = importer.importPosts(request.posts(), authentication.getName());
+        if (result.isError()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private static boolean isImporter(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> IMPORTER_ROLE.equals(authority.getAuthority()));
+    }
+}
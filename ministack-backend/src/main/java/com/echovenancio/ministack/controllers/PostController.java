@@ -2,16 +2,20 @@ package com.echovenancio.ministack.controllers;
 
 import java.security.Principal;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,14 +28,27 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.echovenancio.ministack.entity.Post;
 import com.echovenancio.ministack.entity.Tag;
-import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
+import com.echovenancio.ministack.models.CountMode;
 import com.echovenancio.ministack.models.CreatePostRequest;
+import com.echovenancio.ministack.models.CursorPage;
 import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.EstimatedPage;
+import com.echovenancio.ministack.models.PageSlice;
 import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TagMatchMode;
 import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.PostSummaryRow;
 import com.echovenancio.ministack.repository.ReplyRepository;
-import com.echovenancio.ministack.repository.TagRepository;
 import com.echovenancio.ministack.repository.UserRepository;
+import com.echovenancio.ministack.service.PostSearchCache;
+import com.echovenancio.ministack.service.PostSearchEngine;
+import com.echovenancio.ministack.service.SuggestionIndex;
+import com.echovenancio.ministack.service.TagDictionary;
+import com.echovenancio.ministack.service.TagPostCounter;
+import com.echovenancio.ministack.utils.AfterCommit;
+import com.echovenancio.ministack.utils.Cursor;
 import com.echovenancio.ministack.utils.Result;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -41,96 +58,218 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @RequestMapping("/api/posts")
 public class PostController {
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+
+    private static final String RELEVANCE_SORT = "relevance";
+
+    private static final int MAX_RELEVANCE_RESULTS = 1000;
+
     private final PostRepository postRepo;
 
     private final UserRepository userRepo;
 
-    private final TagRepository tagRepo;
+    private final TagDictionary tagDictionary;
 
     private final ReplyRepository replyRepo;
 
-    public PostController(PostRepository postRepo, UserRepository userRepo, TagRepository tagRepo,
-            ReplyRepository replyRepo) {
+    private final PostSearchEngine searchEngine;
+
+    private final SuggestionIndex suggestions;
+
+    private final PostSearchCache searchCache;
+
+    private final TagPostCounter tagCounter;
+
+    public PostController(PostRepository postRepo, UserRepository userRepo, TagDictionary tagDictionary,
+            ReplyRepository replyRepo, PostSearchEngine searchEngine, SuggestionIndex suggestions,
+            PostSearchCache searchCache, TagPostCounter tagCounter) {
         this.postRepo = postRepo;
         this.userRepo = userRepo;
-        this.tagRepo = tagRepo;
+        this.tagDictionary = tagDictionary;
         this.replyRepo = replyRepo;
+        this.searchEngine = searchEngine;
+        this.suggestions = suggestions;
+        this.searchCache = searchCache;
+        this.tagCounter = tagCounter;
     }
 
+    /**
+     * Paged listing. By default the total is an estimate flagged as approximate;
+     * {@code count=exact} runs the count query and returns the full {@code Page},
+     * {@code count=none} skips totals and only reports whether a next page exists.
+     * {@code sort=relevance} returns the top matches of the query instead, with
+     * highlighted snippets when {@code snippets=true}.
+     */
     @GetMapping("/")
-    public ResponseEntity<Result<Page<PostDto>, ErrorResponse>> getPosts(@RequestParam(required = false) String query,
+    public ResponseEntity<Result<?, ErrorResponse>> getPosts(@RequestParam(required = false) String query,
             @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "any") String tagMode,
+            @RequestParam(defaultValue = "estimate") String count,
+            @RequestParam(defaultValue = "false") boolean snippets,
             Pageable pageable) {
-        System.out.println(">>> createPost hit");
+        Optional<CountMode> countMode = CountMode.parse(count);
+        if (countMode.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Invalid count mode: " + count, "400")));
+        }
+        Result<PostSearchFilter, ErrorResponse> filter = buildSearchFilter(query, tags, tagMode);
+        if (filter.isError()) {
+            return ResponseEntity.badRequest().body(Result.error(filter.getError()));
+        }
+        PostSearchFilter f = filter.getSuccess();
+        if (pageable.getSort().getOrderFor(RELEVANCE_SORT) != null) {
+            return searchByRelevance(f, pageable, snippets);
+        }
+        return switch (countMode.get()) {
+            case EXACT -> ResponseEntity.ok(Result.success(searchCache.get(
+                    PostSearchCache.Key.page(f, "exact", pageable), () -> searchEngine.search(f, pageable))));
+            case NONE -> ResponseEntity.ok(Result.success(PageSlice.of(searchCache.get(
+                    PostSearchCache.Key.page(f, "slice", pageable), () -> searchEngine.searchSlice(f, pageable)))));
+            case ESTIMATE -> {
+                Slice<PostDto> slice = searchCache.get(
+                        PostSearchCache.Key.page(f, "slice", pageable), () -> searchEngine.searchSlice(f, pageable));
+                long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+                yield ResponseEntity.ok(Result.success(
+                        EstimatedPage.of(slice, offset, searchEngine.estimateTotal(f))));
+            }
+        };
+    }
+
+    private ResponseEntity<Result<?, ErrorResponse>> searchByRelevance(PostSearchFilter filter, Pageable pageable,
+            boolean snippets) {
+        if (filter.query() == null) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Sorting by relevance requires a query", "400")));
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_RELEVANCE_RESULTS) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse(
+                            "Relevance results are limited to the top " + MAX_RELEVANCE_RESULTS, "400")));
+        }
+        // The relevance order replaces any column sort the client sent along.
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        PostSearchCache.Key key = PostSearchCache.Key.page(filter, snippets ? "relevance+snippets" : "relevance",
+                unsorted);
+        return ResponseEntity.ok(Result.success(PageSlice.of(
+                searchCache.get(key, () -> searchEngine.searchByRelevance(filter, unsorted, snippets)))));
+    }
+
+    @GetMapping(value = "/", params = "limit")
+    public ResponseEntity<Result<CursorPage<PostDto>, ErrorResponse>> getPostsByCursor(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "any") String tagMode,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse(
+                            "Limit must be between 1 and " + MAX_CURSOR_LIMIT, "400")));
+        }
+        Result<PostSearchFilter, ErrorResponse> filter = buildSearchFilter(query, tags, tagMode);
+        if (filter.isError()) {
+            return ResponseEntity.badRequest().body(Result.error(filter.getError()));
+        }
+        PostSearchFilter f = filter.getSuccess();
+
+        final Cursor cursor;
+        try {
+            cursor = after != null ? Cursor.decode(after) : Cursor.start();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Invalid cursor", "400")));
+        }
+
+        return ResponseEntity.ok(Result.success(searchCache.get(PostSearchCache.Key.cursor(f, cursor, limit),
+                () -> findPageAfter(f, cursor, limit))));
+    }
+
+    private CursorPage<PostDto> findPageAfter(PostSearchFilter f, Cursor cursor, int limit) {
+        // One extra row tells us whether a next page exists without counting.
+        List<PostSummaryRow> rows = postRepo.findPageAfter(f.query(), f.tagIdsParam(), f.requiredTagMatches(),
+                cursor.createdAt(), cursor.id(), limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<PostSummaryRow> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummaryRow last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<PostDto> content = page.stream().map(PostDto::new).toList();
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    /**
+     * Normalizes the listing parameters and resolves tag names to ids with a
+     * single lookup, so the search query only has to deal with ids.
+     */
+    private Result<PostSearchFilter, ErrorResponse> buildSearchFilter(String query, String tags, String tagMode) {
         if (query != null && query.isBlank()) {
             query = null;
         }
-        System.out.println(">>> query: " + query);
-        List<String> tagsList = tags != null ? Arrays.asList(tags.split(",")) : null;
-        if (tagsList != null && !tagsList.isEmpty()) {
-            for (String tag : tagsList) {
-                Optional<Tag> foundTag = tagRepo.findByName(tag);
-                if (foundTag.isEmpty()) {
-                    return ResponseEntity.badRequest()
-                            .body(Result.error(
-                                    new ErrorResponse("Tag not found", "400")));
-                }
+        Optional<TagMatchMode> mode = TagMatchMode.parse(tagMode);
+        if (mode.isEmpty()) {
+            return Result.error(new ErrorResponse("Invalid tag mode: " + tagMode, "400"));
+        }
+        if (tags == null || tags.isBlank()) {
+            return Result.success(new PostSearchFilter(query, List.of(), mode.get()));
+        }
+        Set<String> tagNames = new HashSet<>(Arrays.asList(tags.split(",")));
+        Map<String, Tag> foundTags = tagDictionary.resolve(tagNames);
+        if (foundTags.size() != tagNames.size()) {
+            return Result.error(new ErrorResponse("Tag not found", "400"));
+        }
+        List<Long> tagIds = foundTags.values().stream().map(Tag::getId).toList();
+        return Result.success(new PostSearchFilter(query, tagIds, mode.get()));
+    }
+
+    /** Resolves the tag names of a post write in memory, naming the first one that doesn't exist. */
+    private Result<Set<Tag>, ErrorResponse> resolveTags(String[] tagNames) {
+        Map<String, Tag> found = tagDictionary.resolve(Arrays.asList(tagNames));
+        for (String tagName : tagNames) {
+            if (!found.containsKey(tagName)) {
+                return Result.error(new ErrorResponse("Tag not found: " + tagName, "400"));
             }
-        } else {
-            tags = null;
-        }
-        System.out.println(">>> tags: " + tags);
-        System.out.println(">>> pageable: " + pageable);
-        return ResponseEntity.ok(
-                Result.success(postRepo.fullTextSearch(query, tags, pageable)
-                        .map(PostDto::new)));
+        }
+        return Result.success(new HashSet<>(found.values()));
     }
 
     @Operation(summary = "Create a new post", security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping
+    @Transactional
     public ResponseEntity<Result<PostDto, ErrorResponse>> createPost(@RequestBody CreatePostRequest newPost,
-            Principal principal) {
+            @AuthenticationPrincipal AuthenticatedUser author) {
 
-        String email = principal.getName();
-        Optional<User> maybeUser = userRepo.findByEmail(email);
-
-        if (maybeUser.isEmpty()) {
+        if (author == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Result.error(new ErrorResponse("User not found", "401")));
         }
 
-        User user = maybeUser.get();
         Post post = new Post();
 
         post.setTitle(newPost.getTitle());
 
-        Set<Result<Tag, ErrorResponse>> rawResult = Arrays.stream(newPost.getTags())
-                .map(tagName -> tagRepo.findByName(tagName)
-                        .<Result<Tag, ErrorResponse>>map(Result::success)
-                        .orElse(Result.error(
-                                new ErrorResponse("Tag not found: " + tagName, "400"))))
-                .collect(Collectors.toSet());
-
-        Optional<ErrorResponse> tagsError = rawResult.stream()
-                .filter(Result::isError)
-                .map(Result::getError)
-                .findFirst();
-
-        if (tagsError.isPresent()) {
+        Result<Set<Tag>, ErrorResponse> resolvedTags = resolveTags(newPost.getTags());
+        if (resolvedTags.isError()) {
             return ResponseEntity.badRequest()
-                    .body(Result.error(tagsError.get()));
+                    .body(Result.error(resolvedTags.getError()));
         }
-
-        Set<Tag> tags = rawResult.stream()
-                .filter(Result::isSuccess)
-                .map(Result::getSuccess)
-                .collect(Collectors.toSet());
+        Set<Tag> tags = resolvedTags.getSuccess();
 
         post.setBody(newPost.getBody());
         post.setTags(tags);
-        post.setUser(user);
-
-        PostDto postDto = new PostDto(postRepo.save(post));
+        // The token already names the author, so only its id is needed: no SELECT.
+        post.setUser(userRepo.getReferenceById(author.id()));
+
+        Post saved = postRepo.save(post);
+        tagCounter.postCreated(tags);
+        // In-memory state follows only a committed write; registered ahead of the eviction, so it runs first.
+        AfterCommit.run(() -> {
+            searchEngine.index(saved);
+            suggestions.addPost(saved);
+        });
+        searchCache.evictFor(saved);
+        PostDto postDto = new PostDto(saved, author.username());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(Result.success(postDto));
     }
@@ -148,6 +287,7 @@ public class PostController {
 
     @Operation(summary = "Delete a post by ID", security = @SecurityRequirement(name = "bearerAuth"))
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Result<Void, ErrorResponse>> deletePost(@PathVariable Long id, Principal principal) {
 
         Optional<Post> maybePost = postRepo.findById(id);
@@ -162,16 +302,21 @@ public class PostController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Result.error(new ErrorResponse("You do not have permission to delete this post", "403")));
         }
-        post.getReplies().forEach(reply -> {
-            reply.setPost(null);
-            replyRepo.save(reply);
-        });
+        // One set-based statement, however many replies the post has; none are loaded.
+        replyRepo.softDeleteByPost(id);
+        tagCounter.postDeleted(post.getTags());
         postRepo.delete(post);
+        AfterCommit.run(() -> {
+            suggestions.removePost(post);
+            searchEngine.remove(id);
+        });
+        searchCache.evictFor(post);
         return ResponseEntity.ok(Result.success(null));
     }
 
     @Operation(summary = "Update a post by ID", security = @SecurityRequirement(name = "bearerAuth"))
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Result<PostDto, ErrorResponse>> updatePost(@PathVariable Long id,
             @RequestBody CreatePostRequest updatedPost,
             Principal principal) {
@@ -190,33 +335,32 @@ public class PostController {
                     .body(Result.error(new ErrorResponse("You do not have permission to update this post", "403")));
         }
 
-        post.setTitle(updatedPost.getTitle());
-        post.setBody(updatedPost.getBody());
-
-        Set<Result<Tag, ErrorResponse>> rawResult = Arrays.stream(updatedPost.getTags())
-                .map(tagName -> tagRepo.findByName(tagName)
-                        .<Result<Tag, ErrorResponse>>map(Result::success)
-                        .orElse(Result.error(
-                                new ErrorResponse("Tag not found: " + tagName, "400"))))
-                .collect(Collectors.toSet());
-
-        Optional<ErrorResponse> tagsError = rawResult.stream()
-                .filter(Result::isError)
-                .map(Result::getError)
-                .findFirst();
-
-        if (tagsError.isPresent()) {
+        // Validate before touching the managed post, or the transaction would flush a half-applied edit.
+        Result<Set<Tag>, ErrorResponse> resolvedTags = resolveTags(updatedPost.getTags());
+        if (resolvedTags.isError()) {
             return ResponseEntity.badRequest()
-                    .body(Result.error(tagsError.get()));
+                    .body(Result.error(resolvedTags.getError()));
         }
+        Set<Tag> tags = resolvedTags.getSuccess();
 
-        Set<Tag> tags = rawResult.stream()
-                .filter(Result::isSuccess)
-                .map(Result::getSuccess)
-                .collect(Collectors.toSet());
+        // The post as the suggestions still know it until the edit commits, old tags included.
+        Set<Tag> previousTags = post.getTags() == null ? Set.of() : new HashSet<>(post.getTags());
+        Post previous = new Post(post.getId(), post.getTitle(), post.getBody(), post.getUser(), previousTags, null);
 
+        post.setTitle(updatedPost.getTitle());
+        post.setBody(updatedPost.getBody());
         post.setTags(tags);
-        PostDto postDto = new PostDto(postRepo.save(post));
+        Post saved = postRepo.save(post);
+        tagCounter.postRetagged(previousTags, tags);
+        // Old tag usage comes down before the new goes up.
+        AfterCommit.run(() -> {
+            suggestions.removePost(previous);
+            searchEngine.index(saved);
+            suggestions.addPost(saved);
+        });
+        searchCache.evictFor(previous);
+        searchCache.evictFor(saved);
+        PostDto postDto = new PostDto(saved);
         return ResponseEntity.ok(Result.success(postDto));
     }
 }
@@ -1,15 +1,20 @@
 package com.echovenancio.ministack.controllers;
 
 import java.security.Principal;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,19 +22,24 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.echovenancio.ministack.entity.Post;
 import com.echovenancio.ministack.entity.Reply;
-import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
 import com.echovenancio.ministack.models.CreateReplyRequest;
+import com.echovenancio.ministack.models.CursorPage;
 import com.echovenancio.ministack.models.ErrorResponse;
 import com.echovenancio.ministack.models.ReplyDto;
 import com.echovenancio.ministack.models.UpdateReplyRequest;
 import com.echovenancio.ministack.repository.PostRepository;
 import com.echovenancio.ministack.repository.ReplyRepository;
 import com.echovenancio.ministack.repository.UserRepository;
+import com.echovenancio.ministack.service.ReplyCounter;
+import com.echovenancio.ministack.utils.Cursor;
+import com.echovenancio.ministack.utils.ReplyPath;
 import com.echovenancio.ministack.utils.Result;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -39,6 +49,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @RequestMapping("/api/posts/{postId}/replies")
 public class ReplyController {
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     @Autowired
     private ReplyRepository replyRepo;
 
@@ -48,14 +60,23 @@ public class ReplyController {
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private ReplyCounter replyCounter;
+
     @GetMapping("/")
     public ResponseEntity<Result<Page<ReplyDto>, ErrorResponse>> getReplies(@PathVariable Long postId,
             Pageable pageable) {
-        Page<ReplyDto> replies = replyRepo.findByPostIdAndParentReplyIsNull(postId, pageable)
-                .map(ReplyDto::new);
+        Page<ReplyDto> replies = replyRepo.findByPostIdAndParentReplyIsNull(postId, pageable);
         return ResponseEntity.ok(Result.success(replies));
     }
 
+    @GetMapping(value = "/", params = "limit")
+    public ResponseEntity<Result<CursorPage<ReplyDto>, ErrorResponse>> getRepliesByCursor(@PathVariable Long postId,
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        return pageAfter(after, limit,
+                (cursor, pageable) -> replyRepo.findTopLevelAfter(postId, cursor.createdAt(), cursor.id(), pageable));
+    }
+
     @GetMapping("/{replyId}")
     public ResponseEntity<Result<ReplyDto, ErrorResponse>> getReply(@PathVariable Long postId, @PathVariable Long replyId) {
         Optional<Reply> maybeReply = replyRepo.findByIdAndPostId(replyId, postId);
@@ -70,34 +91,91 @@ public class ReplyController {
     @GetMapping("/{replyId}/nested")
     public ResponseEntity<Result<Page<ReplyDto>, ErrorResponse>> getNestedReplies(@PathVariable Long postId, @PathVariable Long replyId,
             Pageable pageable) {
-        Page<ReplyDto> nestedReplies = replyRepo.findByPostIdAndParentReplyId(postId, replyId, pageable)
-                .map(ReplyDto::new);
+        Page<ReplyDto> nestedReplies = replyRepo.findByPostIdAndParentReplyId(postId, replyId, pageable);
         return ResponseEntity.ok(Result.success(nestedReplies));
     }
 
+    @GetMapping(value = "/{replyId}/nested", params = "limit")
+    public ResponseEntity<Result<CursorPage<ReplyDto>, ErrorResponse>> getNestedRepliesByCursor(
+            @PathVariable Long postId, @PathVariable Long replyId,
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        return pageAfter(after, limit, (cursor, pageable) -> replyRepo.findChildrenAfter(postId, replyId,
+                cursor.createdAt(), cursor.id(), pageable));
+    }
+
+    private ResponseEntity<Result<CursorPage<ReplyDto>, ErrorResponse>> pageAfter(String after, int limit,
+            BiFunction<Cursor, Pageable, List<ReplyDto>> query) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse(
+                            "Limit must be between 1 and " + MAX_CURSOR_LIMIT, "400")));
+        }
+        final Cursor cursor;
+        try {
+            cursor = after != null ? Cursor.decode(after) : Cursor.origin();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Invalid cursor", "400")));
+        }
+
+        // One extra row tells us whether a next page exists without counting.
+        List<ReplyDto> rows = query.apply(cursor, PageRequest.of(0, limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<ReplyDto> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ReplyDto last = content.get(content.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAtValue(), last.getId()).encode();
+        }
+        return ResponseEntity.ok(Result.success(new CursorPage<>(content, nextCursor)));
+    }
+
+    /**
+     * Everything below a reply, parents before children, optionally limited to
+     * {@code maxDepth} levels. One range scan over the path index.
+     */
+    @GetMapping("/{replyId}/descendants")
+    public ResponseEntity<Result<Page<ReplyDto>, ErrorResponse>> getDescendants(@PathVariable Long postId,
+            @PathVariable Long replyId, @RequestParam(required = false) Integer maxDepth, Pageable pageable) {
+        if (maxDepth != null && maxDepth < 1) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Max depth must be positive", "400")));
+        }
+        Optional<Reply> maybeReply = replyRepo.findByIdAndPostId(replyId, postId);
+        if (maybeReply.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Result.error(new ErrorResponse("Reply not found", "404")));
+        }
+        String prefix = ReplyPath.subtree(maybeReply.get());
+        int maxLength = maxDepth == null ? Integer.MAX_VALUE : ReplyPath.maxLength(prefix, maxDepth);
+        Page<ReplyDto> descendants = replyRepo
+                .findDescendants(prefix, ReplyPath.upperBound(prefix), maxLength, pageable);
+        return ResponseEntity.ok(Result.success(descendants));
+    }
+
     @Operation(summary = "Create a new reply to a post", security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/")
+    @Transactional
     public ResponseEntity<Result<ReplyDto, ErrorResponse>> createReply(@PathVariable Long postId, @RequestBody CreateReplyRequest req,
-            Principal principal) {
+            @AuthenticationPrincipal AuthenticatedUser author) {
 
-        String email = principal.getName();
-        Optional<User> maybeUser = userRepo.findByEmail(email);
-        if (maybeUser.isEmpty()) {
+        if (author == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Result.error(new ErrorResponse("User not found", "401")));
         }
-        User user = maybeUser.get();
 
         Reply reply = new Reply();
 
         if (req.getParentReplyId() != null) {
-            Optional<Reply> maybeParentReply = replyRepo.findById(req.getParentReplyId());
+            // Scoped to the post: a parent from another thread would lend its path and child count.
+            Optional<Reply> maybeParentReply = replyRepo.findByIdAndPostId(req.getParentReplyId(), postId);
             if (maybeParentReply.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(Result.error(new ErrorResponse("Parent reply not found", "400")));
             }
             reply.setParentReply(maybeParentReply.get());
         }
+        reply.setPath(ReplyPath.childOf(reply.getParentReply()));
 
         Optional<Post> maybePost = postRepo.findById(postId);
         if (maybePost.isEmpty()) {
@@ -108,13 +186,16 @@ public class ReplyController {
 
         reply.setPost(post);
         reply.setBody(req.getBody());
-        reply.setUser(user);
+        reply.setUser(userRepo.getReferenceById(author.id()));
+        Reply saved = replyRepo.save(reply);
+        replyCounter.replyCreated(saved);
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(Result.success(new ReplyDto(replyRepo.save(reply))));
+                .body(Result.success(new ReplyDto(saved, author.username())));
     }
 
     @Operation(summary = "Delete a reply", security = @SecurityRequirement(name = "bearerAuth"))
     @DeleteMapping("/{replyId}")
+    @Transactional
     public ResponseEntity<Result<Void, ErrorResponse>> deleteReply(@PathVariable Long postId, @PathVariable Long replyId,
             Principal principal) {
         Optional<Reply> maybeReply = replyRepo.findById(replyId);
@@ -130,6 +211,8 @@ public class ReplyController {
                     .body(Result.error(new ErrorResponse("You do not have permission to delete this reply", "403")));
         }
 
+        // Leaves a tombstone: the children keep their parent and paths, and the thread a placeholder.
+        replyCounter.replyDeleted(reply);
         replyRepo.delete(reply);
         return ResponseEntity.ok().build();
     }
@@ -0,0 +1,44 @@
+package com.echovenancio.ministack.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.service.MyUserDetailsService;
+import com.echovenancio.ministack.service.PostSearchCache;
+import com.echovenancio.ministack.utils.BoundedCache;
+import com.echovenancio.ministack.utils.Result;
+
+/** Counters for the in-process caches, to size them against real traffic. */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final PostSearchCache searchCache;
+    private final MyUserDetailsService userDetailsService;
+    private final JWTUtil jwtUtil;
+
+    public StatsController(PostSearchCache searchCache, MyUserDetailsService userDetailsService, JWTUtil jwtUtil) {
+        this.searchCache = searchCache;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @GetMapping("/search-cache")
+    public ResponseEntity<Result<BoundedCache.Stats, ErrorResponse>> getSearchCacheStats() {
+        return ResponseEntity.ok(Result.success(searchCache.stats()));
+    }
+
+    @GetMapping("/principal-cache")
+    public ResponseEntity<Result<BoundedCache.Stats, ErrorResponse>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(Result.success(userDetailsService.principalCacheStats()));
+    }
+
+    @GetMapping("/token-cache")
+    public ResponseEntity<Result<BoundedCache.Stats, ErrorResponse>> getTokenCacheStats() {
+        return ResponseEntity.ok(Result.success(jwtUtil.tokenCacheStats()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.echovenancio.ministack.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.Suggestion;
+import com.echovenancio.ministack.service.SuggestionIndex;
+import com.echovenancio.ministack.utils.Result;
+
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    private final SuggestionIndex suggestions;
+
+    public SuggestController(SuggestionIndex suggestions) {
+        this.suggestions = suggestions;
+    }
+
+    /** As-you-type suggestions: the most popular tags and post titles starting with {@code prefix}. */
+    @GetMapping
+    public ResponseEntity<Result<List<Suggestion>, ErrorResponse>> suggest(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Prefix must not be blank", "400")));
+        }
+        if (limit < 1 || limit > SuggestionIndex.MAX_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse(
+                            "Limit must be between 1 and " + SuggestionIndex.MAX_LIMIT, "400")));
+        }
+        return ResponseEntity.ok(Result.success(suggestions.suggest(prefix, limit)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.echovenancio.ministack.controllers;
+
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.TagDto;
+import com.echovenancio.ministack.models.TagSort;
+import com.echovenancio.ministack.repository.TagRepository;
+import com.echovenancio.ministack.utils.Result;
+
+@RestController
+@RequestMapping("/api/tags")
+public class TagController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TagRepository tagRepo;
+
+    public TagController(TagRepository tagRepo) {
+        this.tagRepo = tagRepo;
+    }
+
+    /** Tags with their post counts, most used first ({@code sort=count}) or alphabetical ({@code sort=name}). */
+    @GetMapping
+    public ResponseEntity<Result<Page<TagDto>, ErrorResponse>> getTags(
+            @RequestParam(defaultValue = "count") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Optional<TagSort> tagSort = TagSort.parse(sort);
+        if (tagSort.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Invalid sort: " + sort, "400")));
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse(
+                            "Page must be non-negative and size between 1 and " + MAX_PAGE_SIZE, "400")));
+        }
+        Page<TagDto> tags = tagRepo.findAll(PageRequest.of(page, size, tagSort.get().sort())).map(TagDto::new);
+        return ResponseEntity.ok(Result.success(tags));
+    }
+}
@@ -0,0 +1,69 @@
+package com.echovenancio.ministack.controllers;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostThread;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.ReplyRepository;
+import com.echovenancio.ministack.repository.ThreadReplyRow;
+import com.echovenancio.ministack.service.ReplyTreeBuilder;
+import com.echovenancio.ministack.utils.Result;
+
+@RestController
+@RequestMapping("/api/posts/{postId}/thread")
+public class ThreadController {
+
+    static final int MAX_DEPTH = 50;
+
+    static final int MAX_REPLIES = 2000;
+
+    private final PostRepository postRepo;
+
+    private final ReplyRepository replyRepo;
+
+    public ThreadController(PostRepository postRepo, ReplyRepository replyRepo) {
+        this.postRepo = postRepo;
+        this.replyRepo = replyRepo;
+    }
+
+    /**
+     * The post, its tags and its replies nested under their parents, in two
+     * queries however deep the thread goes.
+     */
+    @GetMapping
+    public ResponseEntity<Result<PostThread, ErrorResponse>> getThread(@PathVariable Long postId,
+            @RequestParam(defaultValue = "10") int maxDepth,
+            @RequestParam(defaultValue = "500") int maxReplies) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Max depth must be between 1 and " + MAX_DEPTH, "400")));
+        }
+        if (maxReplies < 1 || maxReplies > MAX_REPLIES) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error(new ErrorResponse("Max replies must be between 1 and " + MAX_REPLIES, "400")));
+        }
+        Optional<Post> maybePost = postRepo.findWithUserAndTagsById(postId);
+        if (maybePost.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Result.error(new ErrorResponse("Post not found", "404")));
+        }
+        // One extra row tells us whether the size limit cut anything off.
+        List<ThreadReplyRow> rows = replyRepo.findThread(postId, maxDepth, maxReplies + 1);
+        boolean truncated = rows.size() > maxReplies;
+        List<ThreadReplyRow> kept = truncated ? rows.subList(0, maxReplies) : rows;
+        return ResponseEntity.ok(Result.success(
+                new PostThread(new PostDto(maybePost.get()), ReplyTreeBuilder.build(kept), truncated)));
+    }
+}
@@ -1,15 +1,15 @@
 package com.echovenancio.ministack.controllers;
 
-import java.security.Principal;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
 import com.echovenancio.ministack.repository.UserRepository;
 
 @RestController
@@ -23,12 +23,11 @@ public class UserController {
     }
 
     @GetMapping("/info")
-    public ResponseEntity<User> getUserDetails(Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<User> getUserDetails(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
             return ResponseEntity.status(401).build(); // Unauthorized
         }
-        String email = principal.getName();
-        return userRepo.findByEmail(email)
+        return userRepo.findById(user.id())
             .map(ResponseEntity::ok)
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
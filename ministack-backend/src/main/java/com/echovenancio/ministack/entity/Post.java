@@ -6,8 +6,9 @@ import java.util.Set;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -19,22 +20,31 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+// Deleting a post leaves a tombstone that every entity query skips; see TombstoneCompactor.
 @Entity
+@SQLDelete(sql = "UPDATE post SET deleted_at = now() WHERE id = ?")
+@SQLRestriction("deleted_at IS NULL")
 @ToString
 public class Post {
+    // Ids per post_seq call; has to equal the sequence's INCREMENT BY (see V15).
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
     private String body;
 
-    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    // Tags are shared reference rows: posts link to them but never persist or delete them.
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "post_tags", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
     private Set<Tag> tags;
 
@@ -50,6 +60,10 @@ public class Post {
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "post")
     private Set<Reply> replies;
 
+    // Maintained with in-database increments; never written through the entity.
+    @Column(name = "reply_count", nullable = false, insertable = false, updatable = false)
+    private long replyCount;
+
     public Post() {
     }
 
@@ -132,4 +146,12 @@ public class Post {
         this.replies = replies;
     }
 
+    public long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(long replyCount) {
+        this.replyCount = replyCount;
+    }
+
 }
@@ -6,8 +6,11 @@ import java.util.Set;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -16,17 +19,25 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+// Deleting a reply leaves a tombstone that every entity query skips; see TombstoneCompactor.
 @Entity
+@SQLDelete(sql = "UPDATE reply SET deleted_at = now() WHERE id = ?")
+@SQLRestriction("deleted_at IS NULL")
 @ToString
 public class Reply {
+    // Ids per reply_seq call; has to equal the sequence's INCREMENT BY (see V15).
+    public static final int ID_ALLOCATION_SIZE = 200;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reply_seq")
+    @SequenceGenerator(name = "reply_seq", sequenceName = "reply_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String body;
@@ -52,6 +63,14 @@ public class Reply {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // Ancestor ids, root first; see ReplyPath. Written once when the reply is created.
+    @Column(name = "path", nullable = false, updatable = false)
+    private String path = "";
+
+    // Maintained with in-database increments; never written through the entity.
+    @Column(name = "child_count", nullable = false, insertable = false, updatable = false)
+    private long childCount;
+
     public Reply() {
     }
 
@@ -142,4 +161,20 @@ public class Reply {
         this.createdAt = createdAt;
     }
 
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(long childCount) {
+        this.childCount = childCount;
+    }
+
 }
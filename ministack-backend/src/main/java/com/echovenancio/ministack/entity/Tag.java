@@ -10,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -18,13 +19,21 @@ import lombok.ToString;
 @Entity
 @ToString
 public class Tag {
+    // Ids per tag_seq call; has to equal the sequence's INCREMENT BY (see V15).
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String name;
 
+    // Maintained with in-database increments; never written through the entity.
+    @Column(name = "post_count", nullable = false, insertable = false, updatable = false)
+    private long postCount;
+
     @ManyToMany(fetch = FetchType.LAZY, mappedBy = "tags")
     private Set<Post> posts = new HashSet<>();
 
@@ -56,6 +65,14 @@ public class Tag {
         this.name = name;
     }
 
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(long postCount) {
+        this.postCount = postCount;
+    }
+
     public Set<Post> getPosts() {
         return posts;
     }
@@ -3,6 +3,8 @@ package com.echovenancio.ministack.exceptions;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingPathVariableException;
@@ -26,6 +28,23 @@ public class GlobalExceptionHandler {
                 .body(Result.error(errorResponse));
     }
 
+    // A write that references a row removed in the meantime, such as an author deleted behind a cached principal.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Result<Void, ErrorResponse>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        logger.warn("Data integrity violation: " + ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse("Conflict", "409");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Result.error(errorResponse));
+    }
+
+    @ExceptionHandler(UnsupportedSortException.class)
+    public ResponseEntity<Result<Void, ErrorResponse>> handleUnsupportedSortException(UnsupportedSortException ex) {
+        logger.warn(ex.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "400");
+        return ResponseEntity.badRequest()
+                .body(Result.error(errorResponse));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Result<Void, ErrorResponse>> handleValidationException(MethodArgumentNotValidException ex) {
         logger.error("Validation error: " + ex.getMessage(), ex);
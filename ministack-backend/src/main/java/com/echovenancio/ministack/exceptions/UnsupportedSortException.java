@@ -0,0 +1,9 @@
+package com.echovenancio.ministack.exceptions;
+
+/** A listing was asked to sort by a property its search engine can't order by. */
+public class UnsupportedSortException extends RuntimeException {
+
+    public UnsupportedSortException(String property) {
+        super("Unsupported sort property: " + property);
+    }
+}
@@ -0,0 +1,44 @@
+package com.echovenancio.ministack.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Runs a backfill statement over a table in id order, one small batch at a
+ * time, each committed on its own, so the table is never locked as a whole.
+ * The statement takes the last id seen and the batch size, and returns the ids
+ * of the batch it covered; a short batch ends the run.
+ */
+final class KeysetBatches {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private KeysetBatches() {
+    }
+
+    static void run(Connection connection, String batch) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (PreparedStatement stmt = connection.prepareStatement(batch)) {
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                stmt.setLong(1, lastId);
+                stmt.setInt(2, BATCH_SIZE);
+                int covered = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = Math.max(lastId, rs.getLong(1));
+                        covered++;
+                    }
+                }
+                if (covered < BATCH_SIZE) {
+                    break;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
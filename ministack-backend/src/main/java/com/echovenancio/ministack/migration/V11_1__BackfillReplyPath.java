@@ -0,0 +1,49 @@
+package com.echovenancio.ministack.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Fills {@code reply.path} for nested replies written before the column existed.
+ * Each reply's ancestors are walked upwards, so batches can go in id order
+ * without waiting for their parents' paths.
+ */
+public class V11_1__BackfillReplyPath extends BaseJavaMigration {
+
+    private static final String BATCH = """
+            WITH RECURSIVE batch AS (
+                SELECT id, parent_reply_id FROM reply
+                WHERE id > ? AND parent_reply_id IS NOT NULL
+                ORDER BY id
+                LIMIT ?
+            ), ancestors AS (
+                SELECT b.id, b.parent_reply_id AS ancestor, 1 AS depth
+                FROM batch b
+              UNION ALL
+                SELECT a.id, r.parent_reply_id, a.depth + 1
+                FROM ancestors a
+                JOIN reply r ON r.id = a.ancestor
+                WHERE r.parent_reply_id IS NOT NULL
+            ), filled AS (
+                UPDATE reply r
+                SET path = p.path
+                FROM (
+                    SELECT id, string_agg(lpad(ancestor::text, 19, '0') || '/', '' ORDER BY depth DESC) AS path
+                    FROM ancestors
+                    GROUP BY id
+                ) p
+                WHERE r.id = p.id
+            )
+            SELECT id FROM batch
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        KeysetBatches.run(context.getConnection(), BATCH);
+    }
+}
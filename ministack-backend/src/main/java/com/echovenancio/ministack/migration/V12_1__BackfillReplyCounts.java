@@ -0,0 +1,63 @@
+package com.echovenancio.ministack.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Counts the replies written before {@code post.reply_count} and
+ * {@code reply.child_count} existed. Rows without replies keep their default
+ * and are not rewritten.
+ */
+public class V12_1__BackfillReplyCounts extends BaseJavaMigration {
+
+    private static final String POST_BATCH = """
+            WITH batch AS (
+                SELECT id FROM post
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+            ), counted AS (
+                UPDATE post p
+                SET reply_count = c.replies
+                FROM (
+                    SELECT r.post_id, count(*) AS replies
+                    FROM reply r
+                    JOIN batch b ON b.id = r.post_id
+                    GROUP BY r.post_id
+                ) c
+                WHERE p.id = c.post_id
+            )
+            SELECT id FROM batch
+            """;
+
+    private static final String REPLY_BATCH = """
+            WITH batch AS (
+                SELECT id FROM reply
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+            ), counted AS (
+                UPDATE reply r
+                SET child_count = c.children
+                FROM (
+                    SELECT child.parent_reply_id, count(*) AS children
+                    FROM reply child
+                    JOIN batch b ON b.id = child.parent_reply_id
+                    GROUP BY child.parent_reply_id
+                ) c
+                WHERE r.id = c.parent_reply_id
+            )
+            SELECT id FROM batch
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        KeysetBatches.run(context.getConnection(), POST_BATCH);
+        KeysetBatches.run(context.getConnection(), REPLY_BATCH);
+    }
+}
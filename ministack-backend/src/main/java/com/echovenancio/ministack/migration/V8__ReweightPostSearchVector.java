@@ -0,0 +1,30 @@
+package com.echovenancio.ministack.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/** Recomputes every post's search vector with the weighted function from V7. */
+public class V8__ReweightPostSearchVector extends BaseJavaMigration {
+
+    private static final String BATCH = """
+            UPDATE post
+            SET search_vector = post_search_vector(title, body)
+            WHERE id IN (
+                SELECT id FROM post
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+            )
+            RETURNING id
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        KeysetBatches.run(context.getConnection(), BATCH);
+    }
+}
@@ -0,0 +1,27 @@
+package com.echovenancio.ministack.models;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * What a request needs to know about its user once the token is verified; never
+ * the password hash. It is the authentication principal, named by the email.
+ */
+public record AuthenticatedUser(Long id, String username, String email, List<GrantedAuthority> authorities)
+        implements Principal {
+
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    /** Every account currently has the one role. */
+    public static AuthenticatedUser withUserRole(Long id, String username, String email) {
+        return new AuthenticatedUser(id, username, email, USER_AUTHORITIES);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
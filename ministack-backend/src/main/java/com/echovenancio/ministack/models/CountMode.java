@@ -0,0 +1,22 @@
+package com.echovenancio.ministack.models;
+
+import java.util.Optional;
+
+/** How the paged post listing reports its total. */
+public enum CountMode {
+    /** Run the count query and return a full {@code Page}. */
+    EXACT,
+    /** Return a cached or planner-estimated total flagged as approximate. */
+    ESTIMATE,
+    /** Return no total, only whether a next page exists. */
+    NONE;
+
+    public static Optional<CountMode> parse(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,5 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, String nextCursor) {}
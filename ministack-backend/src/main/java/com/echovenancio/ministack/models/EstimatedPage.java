@@ -0,0 +1,20 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+/**
+ * A page whose total may be an estimate; {@code approximate} tells clients
+ * whether {@code totalElements} is exact.
+ */
+public record EstimatedPage<T>(List<T> content, int number, int size, boolean hasNext, long totalElements,
+        boolean approximate) {
+
+    public static <T> EstimatedPage<T> of(Slice<T> slice, long offset, TotalEstimate total) {
+        // Never report fewer rows than the client can already see.
+        long seen = offset + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new EstimatedPage<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                Math.max(total.count(), seen), total.approximate());
+    }
+}
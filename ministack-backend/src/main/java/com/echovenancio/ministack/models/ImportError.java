@@ -0,0 +1,4 @@
+package com.echovenancio.ministack.models;
+
+/** Why the post at {@code index} in the request, with all its replies, was skipped. */
+public record ImportError(int index, String message) {}
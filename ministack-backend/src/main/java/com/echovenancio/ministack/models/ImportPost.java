@@ -0,0 +1,11 @@
+package com.echovenancio.ministack.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A post to import with its reply tree. {@code authorEmail} defaults to the
+ * importing user and {@code createdAt} to the time of the import.
+ */
+public record ImportPost(String title, String body, String authorEmail, List<String> tags, LocalDateTime createdAt,
+        List<ImportReply> replies) {}
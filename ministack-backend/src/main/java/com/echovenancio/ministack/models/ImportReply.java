@@ -0,0 +1,6 @@
+package com.echovenancio.ministack.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ImportReply(String body, String authorEmail, LocalDateTime createdAt, List<ImportReply> replies) {}
@@ -0,0 +1,5 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+
+public record ImportResult(int postsImported, int repliesImported, List<ImportError> errors) {}
@@ -0,0 +1,12 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+public record PageSlice<T>(List<T> content, int number, int size, boolean hasNext) {
+
+    public static <T> PageSlice<T> of(Slice<T> slice) {
+        return new PageSlice<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
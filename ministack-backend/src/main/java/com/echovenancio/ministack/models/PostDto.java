@@ -1,11 +1,14 @@
 package com.echovenancio.ministack.models;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.repository.PostSummaryRow;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -21,15 +24,28 @@ import lombok.ToString;
 public class PostDto {
     private Long id;
     private String title;
+    // Left out of listings, which only carry what a result row shows.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String body;
     private String authorUsername;
     private Collection<String> tags;
+    private long replyCount;
+    private String createdAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String snippet;
 
     public PostDto(Post post) {
+        this(post, post.getUser() != null ? post.getUser().getUsername() : null);
+    }
+
+    /** For a post whose author is an unloaded reference, named by the caller instead. */
+    public PostDto(Post post, String authorUsername) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.body = post.getBody();
-        this.authorUsername = post.getUser().getUsername();
+        this.authorUsername = authorUsername;
+        this.replyCount = post.getReplyCount();
+        this.createdAt = post.getCreatedAt() != null ? post.getCreatedAt().toString() : null;
         if (post.getTags() != null && !post.getTags().isEmpty()) {
             Set<String> tagNames = post.getTags().stream()
                 .map(tag -> tag.getName())
@@ -39,4 +55,15 @@ public class PostDto {
             this.tags = Collections.emptyList();
         }
     }
+
+    public PostDto(PostSummaryRow row) {
+        this.id = row.getId();
+        this.title = row.getTitle();
+        this.authorUsername = row.getAuthorUsername();
+        this.replyCount = row.getReplyCount() != null ? row.getReplyCount() : 0;
+        this.createdAt = row.getCreatedAt() != null ? row.getCreatedAt().toString() : null;
+        this.tags = row.getTagNames() != null
+                ? Collections.unmodifiableCollection(Arrays.asList(row.getTagNames().split(",")))
+                : Collections.emptyList();
+    }
 }
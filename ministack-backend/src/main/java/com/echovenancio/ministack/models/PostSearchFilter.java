@@ -0,0 +1,33 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized post search parameters: a non-blank query or null, and the ids of
+ * the requested tags (empty when not filtering by tag).
+ */
+public record PostSearchFilter(String query, List<Long> tagIds, TagMatchMode tagMode) {
+
+    public PostSearchFilter {
+        tagIds = tagIds != null ? List.copyOf(tagIds) : List.of();
+        tagMode = tagMode != null ? tagMode : TagMatchMode.ANY;
+    }
+
+    public boolean hasTags() {
+        return !tagIds.isEmpty();
+    }
+
+    /** Tag ids in the comma-separated form the native queries expect, or null. */
+    public String tagIdsParam() {
+        if (!hasTags()) {
+            return null;
+        }
+        return tagIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /** How many of the requested tags a post must carry to match. */
+    public int requiredTagMatches() {
+        return tagMode == TagMatchMode.ALL ? tagIds.size() : 1;
+    }
+}
@@ -0,0 +1,6 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+
+/** A post with its reply tree; {@code truncated} is set when the size limit cut replies off. */
+public record PostThread(PostDto post, List<ReplyNode> replies, boolean truncated) {}
@@ -1,6 +1,10 @@
 package com.echovenancio.ministack.models;
 
+import java.time.LocalDateTime;
+
 import com.echovenancio.ministack.entity.Reply;
+import com.echovenancio.ministack.utils.ReplyPath;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,14 +23,43 @@ public class ReplyDto {
     private Long userId;
     private String username;
     private String createdAt;
+    private int depth;
+    private long childCount;
+
+    /** The typed {@link #createdAt}, kept so keyset cursors never parse the display string. */
+    @JsonIgnore
+    private LocalDateTime createdAtValue;
+
+    /** Used by the repository's projection queries, which select exactly these columns. */
+    public ReplyDto(Long id, String body, Long postId, Long parentReplyId, Long userId, String username,
+            LocalDateTime createdAt, String path, long childCount) {
+        this.id = id;
+        this.body = body;
+        this.postId = postId;
+        this.parentReplyId = parentReplyId;
+        this.userId = userId;
+        this.username = username;
+        this.createdAt = createdAt != null ? createdAt.toString() : null;
+        this.createdAtValue = createdAt;
+        this.depth = ReplyPath.depth(path);
+        this.childCount = childCount;
+    }
 
     public ReplyDto(Reply reply) {
+        this(reply, reply.getUser() != null ? reply.getUser().getUsername() : null);
+    }
+
+    /** For a reply whose author is an unloaded reference, named by the caller instead. */
+    public ReplyDto(Reply reply, String username) {
         this.id = reply.getId();
         this.body = reply.getBody();
         this.postId = reply.getPost() != null ? reply.getPost().getId() : null;
         this.parentReplyId = reply.getParentReply() != null ? reply.getParentReply().getId() : null;
         this.userId = reply.getUser() != null ? reply.getUser().getId() : null;
-        this.username = reply.getUser() != null ? reply.getUser().getUsername() : null;
+        this.username = username;
         this.createdAt = reply.getCreatedAt() != null ? reply.getCreatedAt().toString() : null;
+        this.createdAtValue = reply.getCreatedAt();
+        this.depth = ReplyPath.depth(reply.getPath());
+        this.childCount = reply.getChildCount();
     }
 }
@@ -0,0 +1,6 @@
+package com.echovenancio.ministack.models;
+
+import java.util.List;
+
+public record ReplyNode(Long id, String body, Long userId, String username, String createdAt, int depth,
+        boolean deleted, List<ReplyNode> replies) {}
@@ -0,0 +1,3 @@
+package com.echovenancio.ministack.models;
+
+public record Suggestion(String text, SuggestionType type, Long id, long popularity) {}
@@ -0,0 +1,6 @@
+package com.echovenancio.ministack.models;
+
+public enum SuggestionType {
+    TAG,
+    POST
+}
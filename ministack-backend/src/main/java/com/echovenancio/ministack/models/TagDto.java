@@ -0,0 +1,10 @@
+package com.echovenancio.ministack.models;
+
+import com.echovenancio.ministack.entity.Tag;
+
+public record TagDto(Long id, String name, long postCount) {
+
+    public TagDto(Tag tag) {
+        this(tag.getId(), tag.getName(), tag.getPostCount());
+    }
+}
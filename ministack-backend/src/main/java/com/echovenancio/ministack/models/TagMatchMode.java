@@ -0,0 +1,17 @@
+package com.echovenancio.ministack.models;
+
+import java.util.Optional;
+
+public enum TagMatchMode {
+    ANY,
+    ALL;
+
+    public static Optional<TagMatchMode> parse(String value) {
+        for (TagMatchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,29 @@
+package com.echovenancio.ministack.models;
+
+import java.util.Optional;
+
+import org.springframework.data.domain.Sort;
+
+public enum TagSort {
+    COUNT(Sort.by(Sort.Order.desc("postCount"), Sort.Order.asc("name"))),
+    NAME(Sort.by(Sort.Order.asc("name")));
+
+    private final Sort sort;
+
+    TagSort(Sort sort) {
+        this.sort = sort;
+    }
+
+    public Sort sort() {
+        return sort;
+    }
+
+    public static Optional<TagSort> parse(String value) {
+        for (TagSort mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,3 @@
+package com.echovenancio.ministack.models;
+
+public record TotalEstimate(long count, boolean approximate) {}
@@ -0,0 +1,110 @@
+package com.echovenancio.ministack.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts imported posts and replies with plain JDBC batches, bypassing the
+ * persistence context: no entity is built, dirty-checked or flushed row by row.
+ * Ids are taken up front in whole sequence blocks, so rows can reference each
+ * other before any of them is written.
+ */
+@Repository
+public class BulkContentWriter {
+
+    static final int BATCH_SIZE = 1000;
+
+    public record NewPost(long id, String title, String body, Long userId, LocalDateTime createdAt, long replyCount,
+            Collection<Long> tagIds) {
+    }
+
+    /** Rows must list every parent before its children. */
+    public record NewReply(long id, String body, long postId, Long parentReplyId, Long userId,
+            LocalDateTime createdAt, String path, long childCount) {
+    }
+
+    private final JdbcTemplate jdbc;
+
+    public BulkContentWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * {@code count} unused ids from {@code sequence}, in one round trip. Each
+     * nextval value {@code v} stands for the block {@code [v, v + blockSize)},
+     * as with the entities' pooled-lo generators, so these ids never collide with
+     * ids Hibernate hands out. {@code blockSize} must be the sequence's increment.
+     */
+    public List<Long> allocateIds(String sequence, int blockSize, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        if (count == 0) {
+            return ids;
+        }
+        int blocks = (count + blockSize - 1) / blockSize;
+        List<Long> lows = jdbc.queryForList(
+                "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        for (long low : lows) {
+            for (long id = low; id < low + blockSize && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    public void insertPosts(List<NewPost> posts) {
+        jdbc.batchUpdate("""
+                INSERT INTO post (id, title, body, user_id, created_at, reply_count)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, posts, BATCH_SIZE, (ps, post) -> {
+            ps.setLong(1, post.id());
+            ps.setString(2, post.title());
+            ps.setString(3, post.body());
+            setLong(ps, 4, post.userId());
+            ps.setObject(5, post.createdAt());
+            ps.setLong(6, post.replyCount());
+        });
+        List<long[]> postTags = new ArrayList<>();
+        for (NewPost post : posts) {
+            for (Long tagId : post.tagIds()) {
+                postTags.add(new long[] { post.id(), tagId });
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)", postTags, BATCH_SIZE,
+                (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                });
+    }
+
+    public void insertReplies(List<NewReply> replies) {
+        jdbc.batchUpdate("""
+                INSERT INTO reply (id, body, post_id, parent_reply_id, user_id, created_at, path, child_count)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, replies, BATCH_SIZE, (ps, reply) -> {
+            ps.setLong(1, reply.id());
+            ps.setString(2, reply.body());
+            ps.setLong(3, reply.postId());
+            setLong(ps, 4, reply.parentReplyId());
+            setLong(ps, 5, reply.userId());
+            ps.setObject(6, reply.createdAt());
+            ps.setString(7, reply.path());
+            ps.setLong(8, reply.childCount());
+        });
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.echovenancio.ministack.repository;
+
+public interface PostReplyCount {
+    Long getPostId();
+    Long getReplies();
+}
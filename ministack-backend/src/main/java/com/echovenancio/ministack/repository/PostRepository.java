@@ -1,40 +1,193 @@
 package com.echovenancio.ministack.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.echovenancio.ministack.entity.Post;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
-    @Query(value = """
-            SELECT DISTINCT p.*
-            FROM post p
-            LEFT JOIN post_tags pt ON p.id = pt.post_id
-            LEFT JOIN tag t ON pt.tag_id = t.id
-            WHERE (:tags IS NULL OR t.name = ANY (string_to_array(:tags, ',')))
-            AND (
+
+    /*
+     * Tag filtering is a semi-join on post_tags.tag_id: a post qualifies when at least
+     * :requiredTagMatches of the given tag ids are attached to it (1 for "any", all of
+     * them for "all"). Posts are never multiplied by their tags, so no DISTINCT is needed.
+     */
+    String TAG_FILTER = """
+            (:tagIds IS NULL OR p.id IN (
+                SELECT pt.post_id
+                FROM post_tags pt
+                WHERE pt.tag_id = ANY (CAST(string_to_array(:tagIds, ',') AS bigint[]))
+                GROUP BY pt.post_id
+                HAVING count(*) >= :requiredTagMatches
+            ))
+            """;
+
+    String QUERY_FILTER = """
+            (
                 :query IS NULL OR
-                to_tsvector('simple', p.title || ' ' || p.body) @@ plainto_tsquery(:query)
+                p.search_vector @@ plainto_tsquery('simple', :query)
             )
-            """, countQuery = """
-            SELECT COUNT(DISTINCT p.id)
+            """;
+
+    /*
+     * Listings read only the columns a PostSummaryRow needs: never the body, and the
+     * author and tag names in the same statement. The tag subquery is an index scan
+     * on post_tags' primary key and runs only for the rows that survive the LIMIT.
+     */
+    String POST_SUMMARY_SELECT = """
+            SELECT p.id AS id, p.title AS title, u.username AS authorUsername, p.created_at AS createdAt,
+                   p.reply_count AS replyCount,
+                   (SELECT string_agg(t.name, ',' ORDER BY t.name)
+                    FROM post_tags pt
+                    JOIN tag t ON t.id = pt.tag_id
+                    WHERE pt.post_id = p.id) AS tagNames
             FROM post p
-            LEFT JOIN post_tags pt ON p.id = pt.post_id
-            LEFT JOIN tag t ON pt.tag_id = t.id
-            WHERE (:tags IS NULL OR t.name = ANY (string_to_array(:tags, ',')))
-            AND (
-                :query IS NULL OR
-                to_tsvector('simple', p.title || ' ' || p.body) @@ plainto_tsquery(:query)
-            )
-            """, nativeQuery = true)
-    Page<Post> fullTextSearch(
+            LEFT JOIN users u ON u.id = p.user_id
+            """;
+
+    // Tombstones are left out here, and the partial indexes only hold live posts.
+    String LIVE_FILTER = "p.deleted_at IS NULL";
+
+    String FULL_TEXT_SEARCH_QUERY = POST_SUMMARY_SELECT + "WHERE " + LIVE_FILTER + " AND " + TAG_FILTER + " AND "
+            + QUERY_FILTER;
+
+    String FULL_TEXT_SEARCH_COUNT_QUERY = "SELECT count(*) FROM post p WHERE " + LIVE_FILTER + " AND " + TAG_FILTER
+            + " AND " + QUERY_FILTER;
+
+    @Query(value = FULL_TEXT_SEARCH_QUERY, countQuery = FULL_TEXT_SEARCH_COUNT_QUERY, nativeQuery = true)
+    Page<PostSummaryRow> fullTextSearch(
             @Param("query") String query,
-            @Param("tags") String tags,
+            @Param("tagIds") String tagIds,
+            @Param("requiredTagMatches") int requiredTagMatches,
             Pageable pageable);
 
+    /** Same search without the count query; fetches one extra row to know if more exist. */
+    @Query(value = FULL_TEXT_SEARCH_QUERY, nativeQuery = true)
+    Slice<PostSummaryRow> fullTextSearchSlice(
+            @Param("query") String query,
+            @Param("tagIds") String tagIds,
+            @Param("requiredTagMatches") int requiredTagMatches,
+            Pageable pageable);
+
+    @Query(value = FULL_TEXT_SEARCH_QUERY + """
+            AND (p.created_at, p.id) < (:afterCreatedAt, :afterId)
+            ORDER BY p.created_at DESC, p.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<PostSummaryRow> findPageAfter(
+            @Param("query") String query,
+            @Param("tagIds") String tagIds,
+            @Param("requiredTagMatches") int requiredTagMatches,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    /*
+     * Top-K by ts_rank over the weighted vector (title 'A' outranks body 'B'). The
+     * inner ORDER BY ... LIMIT runs as a bounded top-N sort, and ts_headline is
+     * evaluated in the outer query, so only the returned rows get a snippet.
+     * Matches are marked with control characters (stripped from the body first),
+     * never HTML; SnippetBuilder.markup escapes the rest before adding tags.
+     */
+    @Query(value = """
+            SELECT r.id AS id, r.rank AS rank,
+                   CASE WHEN :snippets THEN
+                       ts_headline('simple', translate(coalesce(b.body, ''), chr(2) || chr(3), ''),
+                           plainto_tsquery('simple', :query),
+                           'MaxFragments=1, MaxWords=20, MinWords=8, StartSel="' || chr(2)
+                               || '", StopSel="' || chr(3) || '"')
+                   END AS snippet
+            FROM (
+                SELECT p.id, ts_rank(p.search_vector, plainto_tsquery('simple', :query)) AS rank
+                FROM post p
+                WHERE p.deleted_at IS NULL
+                AND p.search_vector @@ plainto_tsquery('simple', :query)
+                AND """ + TAG_FILTER + """
+                ORDER BY rank DESC, p.id DESC
+                LIMIT :limit OFFSET :offset
+            ) r
+            JOIN post b ON b.id = r.id
+            ORDER BY r.rank DESC, r.id DESC
+            """, nativeQuery = true)
+    List<RankedPostRow> findTopRanked(
+            @Param("query") String query,
+            @Param("tagIds") String tagIds,
+            @Param("requiredTagMatches") int requiredTagMatches,
+            @Param("snippets") boolean snippets,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    @Query(value = POST_SUMMARY_SELECT + "WHERE p.id IN (:ids) AND " + LIVE_FILTER, nativeQuery = true)
+    List<PostSummaryRow> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Atomic in-database increment, so concurrent repliers never lose an update. */
+    @Modifying
+    @Query(value = "UPDATE post SET reply_count = reply_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustReplyCount(@Param("id") Long id, @Param("delta") long delta);
+
+    /** Recomputes every drifted reply count from the reply table and returns how many were wrong. */
+    @Modifying
+    @Query(value = """
+            UPDATE post p
+            SET reply_count = c.replies
+            FROM (
+                SELECT p2.id, count(r.id) AS replies
+                FROM post p2
+                LEFT JOIN reply r ON r.post_id = p2.id AND r.deleted_at IS NULL
+                WHERE p2.deleted_at IS NULL
+                GROUP BY p2.id
+            ) c
+            WHERE c.id = p.id AND p.reply_count <> c.replies
+            """, nativeQuery = true)
+    int reconcileReplyCounts();
+
+    /**
+     * Removes up to {@code limit} post tombstones deleted before {@code cutoff}
+     * whose replies have all been purged, along with their join table rows.
+     * Returns how many posts were removed.
+     */
+    @Modifying
+    @Query(value = """
+            WITH doomed AS (
+                SELECT p.id
+                FROM post p
+                WHERE p.deleted_at < :cutoff
+                AND NOT EXISTS (SELECT 1 FROM reply r WHERE r.post_id = p.id)
+                ORDER BY p.deleted_at
+                LIMIT :limit
+            ),
+            tags AS (
+                DELETE FROM post_tags pt USING doomed d WHERE pt.post_id = d.id
+            ),
+            owners AS (
+                DELETE FROM users_posts up USING doomed d WHERE up.posts_id = d.id
+            )
+            DELETE FROM post p USING doomed d WHERE p.id = d.id
+            """, nativeQuery = true)
+    int purgeTombstones(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /** Post ids and titles in id order, starting after {@code afterId}. */
+    @Query("SELECT p.id AS id, p.title AS title FROM Post p WHERE p.id > :afterId AND p.title IS NOT NULL ORDER BY p.id")
+    List<PostTitleRow> findTitlesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = { "user", "tags" })
+    List<Post> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = { "user", "tags" })
+    Optional<Post> findWithUserAndTagsById(Long id);
+
 }
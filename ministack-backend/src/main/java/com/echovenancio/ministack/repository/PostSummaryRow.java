@@ -0,0 +1,13 @@
+package com.echovenancio.ministack.repository;
+
+import java.time.LocalDateTime;
+
+/** What a post listing shows: no body, tag names already joined by commas. */
+public interface PostSummaryRow {
+    Long getId();
+    String getTitle();
+    String getAuthorUsername();
+    LocalDateTime getCreatedAt();
+    Long getReplyCount();
+    String getTagNames();
+}
@@ -0,0 +1,6 @@
+package com.echovenancio.ministack.repository;
+
+public interface PostTitleRow {
+    Long getId();
+    String getTitle();
+}
@@ -0,0 +1,8 @@
+package com.echovenancio.ministack.repository;
+
+/** One row of a relevance-ranked search; the snippet is null unless requested. */
+public interface RankedPostRow {
+    Long getId();
+    Double getRank();
+    String getSnippet();
+}
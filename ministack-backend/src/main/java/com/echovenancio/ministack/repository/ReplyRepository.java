@@ -1,17 +1,158 @@
 package com.echovenancio.ministack.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.echovenancio.ministack.entity.Reply;
+import com.echovenancio.ministack.models.ReplyDto;
 
 public interface ReplyRepository extends JpaRepository<Reply, Long> {
+
+    /*
+     * Listings select straight into ReplyDto, author included, so a page is one
+     * query plus its count however many rows it holds. The foreign key ids are
+     * read from the reply row itself; only users is joined.
+     */
+    String REPLY_DTO_SELECT = """
+            SELECT new com.echovenancio.ministack.models.ReplyDto(
+                r.id, r.body, r.post.id, r.parentReply.id, u.id, u.username, r.createdAt, r.path, r.childCount)
+            FROM Reply r
+            LEFT JOIN r.user u
+            """;
+
     Page<Reply> findByPostId(Long postId, Pageable pageable);
     Optional<Reply> findByIdAndPostId(Long replyId, Long postId);
-    Page<Reply> findByPostIdAndParentReplyId(Long postId, Long parentReplyId, Pageable pageable);
-    Page<Reply> findByPostIdAndParentReplyIsNull(Long postId, Pageable pageable);
+
+    @Query(value = REPLY_DTO_SELECT + "WHERE r.post.id = :postId AND r.parentReply.id = :parentReplyId",
+            countQuery = "SELECT count(r) FROM Reply r WHERE r.post.id = :postId AND r.parentReply.id = :parentReplyId")
+    Page<ReplyDto> findByPostIdAndParentReplyId(@Param("postId") Long postId,
+            @Param("parentReplyId") Long parentReplyId, Pageable pageable);
+
+    @Query(value = REPLY_DTO_SELECT + "WHERE r.post.id = :postId AND r.parentReply IS NULL",
+            countQuery = "SELECT count(r) FROM Reply r WHERE r.post.id = :postId AND r.parentReply IS NULL")
+    Page<ReplyDto> findByPostIdAndParentReplyIsNull(@Param("postId") Long postId, Pageable pageable);
+
     Page<Reply> findByParentReplyId(Long parentReplyId, Pageable pageable);
+
+    /*
+     * Keyset pages, oldest first: each one seeks to (created_at, id) in the
+     * (post_id, parent_reply_id, created_at, id) index and reads only the rows it
+     * returns, so a late page costs the same as the first. Replies created while a
+     * client pages sort after its cursor and are never skipped or repeated.
+     */
+    String AFTER_CURSOR = """
+            AND (r.createdAt, r.id) > (:afterCreatedAt, :afterId)
+            ORDER BY r.createdAt, r.id
+            """;
+
+    @Query(REPLY_DTO_SELECT + "WHERE r.post.id = :postId AND r.parentReply IS NULL " + AFTER_CURSOR)
+    List<ReplyDto> findTopLevelAfter(@Param("postId") Long postId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt, @Param("afterId") long afterId,
+            Pageable pageable);
+
+    @Query(REPLY_DTO_SELECT + "WHERE r.post.id = :postId AND r.parentReply.id = :parentReplyId " + AFTER_CURSOR)
+    List<ReplyDto> findChildrenAfter(@Param("postId") Long postId, @Param("parentReplyId") Long parentReplyId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt, @Param("afterId") long afterId,
+            Pageable pageable);
+
+    /**
+     * Replies whose path falls in {@code [from, to)} and is at most
+     * {@code maxLength} long: a subtree, cut off at some depth. See ReplyPath.
+     */
+    @Query(value = REPLY_DTO_SELECT + "WHERE r.path >= :from AND r.path < :to AND length(r.path) <= :maxLength"
+            + " ORDER BY r.path, r.createdAt, r.id",
+            countQuery = "SELECT count(r) FROM Reply r WHERE r.path >= :from AND r.path < :to"
+                    + " AND length(r.path) <= :maxLength")
+    Page<ReplyDto> findDescendants(@Param("from") String from, @Param("to") String to,
+            @Param("maxLength") int maxLength, Pageable pageable);
+
+    /** Tombstones every live reply of a post in one statement, none of them loaded. */
+    @Modifying
+    @Query(value = "UPDATE reply SET deleted_at = now() WHERE post_id = :postId AND deleted_at IS NULL",
+            nativeQuery = true)
+    int softDeleteByPost(@Param("postId") Long postId);
+
+    /**
+     * Removes up to {@code limit} reply tombstones deleted before {@code cutoff}
+     * that no other reply points at. A tombstone with children waits until they
+     * are purged too, so a thread loses its leaves first and never a middle node.
+     * Returns how many replies were removed.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM reply
+            WHERE id IN (
+                SELECT r.id
+                FROM reply r
+                WHERE r.deleted_at < :cutoff
+                AND NOT EXISTS (SELECT 1 FROM reply c WHERE c.parent_reply_id = r.id)
+                ORDER BY r.deleted_at
+                LIMIT :limit
+            )
+            """, nativeQuery = true)
+    int purgeTombstones(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /** Atomic in-database increment, so concurrent repliers never lose an update. */
+    @Modifying
+    @Query(value = "UPDATE reply SET child_count = child_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustChildCount(@Param("id") Long id, @Param("delta") long delta);
+
+    /** Recomputes every drifted child count and returns how many were wrong. */
+    @Modifying
+    @Query(value = """
+            UPDATE reply r
+            SET child_count = c.children
+            FROM (
+                SELECT r2.id, count(c2.id) AS children
+                FROM reply r2
+                LEFT JOIN reply c2 ON c2.parent_reply_id = r2.id AND c2.deleted_at IS NULL
+                WHERE r2.deleted_at IS NULL
+                GROUP BY r2.id
+            ) c
+            WHERE c.id = r.id AND r.child_count <> c.children
+            """, nativeQuery = true)
+    int reconcileChildCounts();
+
+    /** Reply counts for every post that has replies, in one aggregate pass. */
+    @Query("SELECT r.post.id AS postId, count(r) AS replies FROM Reply r WHERE r.post IS NOT NULL GROUP BY r.post.id")
+    List<PostReplyCount> countRepliesByPost();
+
+    /**
+     * A post's replies down to {@code maxDepth} levels, walked in one recursive
+     * query with their authors joined in. Rows come level by level, oldest first
+     * within a level, so every parent precedes its children and a {@code maxRows}
+     * cut only ever drops the deepest, newest replies. Deleted replies are walked
+     * too, so their children stay in place, but come back without body or author.
+     */
+    @Query(value = """
+            WITH RECURSIVE thread AS (
+                SELECT r.id, 1 AS depth
+                FROM reply r
+                WHERE r.post_id = :postId AND r.parent_reply_id IS NULL
+              UNION ALL
+                SELECT c.id, t.depth + 1
+                FROM thread t
+                JOIN reply c ON c.parent_reply_id = t.id
+                WHERE c.post_id = :postId AND t.depth < :maxDepth
+            )
+            SELECT r.id AS id, r.parent_reply_id AS parentReplyId,
+                   CASE WHEN r.deleted_at IS NULL THEN r.body END AS body,
+                   u.id AS userId, u.username AS username, r.created_at AS createdAt, t.depth AS depth,
+                   r.deleted_at IS NOT NULL AS deleted
+            FROM thread t
+            JOIN reply r ON r.id = t.id
+            LEFT JOIN users u ON u.id = r.user_id AND r.deleted_at IS NULL
+            ORDER BY t.depth, r.created_at, r.id
+            LIMIT :maxRows
+            """, nativeQuery = true)
+    List<ThreadReplyRow> findThread(@Param("postId") Long postId, @Param("maxDepth") int maxDepth,
+            @Param("maxRows") int maxRows);
 }
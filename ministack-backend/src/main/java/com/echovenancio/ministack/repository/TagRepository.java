@@ -1,9 +1,44 @@
 package com.echovenancio.ministack.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TagRepository extends JpaRepository<com.echovenancio.ministack.entity.Tag, Long> {
     Optional<com.echovenancio.ministack.entity.Tag> findByName(String name);
+    List<com.echovenancio.ministack.entity.Tag> findByNameIn(Collection<String> names);
+
+    /** Every tag with the number of posts using it. */
+    @Query(value = "SELECT t.id AS id, t.name AS name, t.post_count AS posts FROM tag t", nativeQuery = true)
+    List<TagUsageRow> findTagUsage();
+
+    /** Atomic in-database increment, so concurrent writers never lose an update. */
+    @Modifying
+    @Query(value = "UPDATE tag SET post_count = post_count + :delta WHERE id IN (:ids)", nativeQuery = true)
+    int adjustPostCount(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    /**
+     * Recomputes every drifted counter from the post_tags rows of live posts and
+     * returns how many were wrong. Tombstones keep their rows until purged, but
+     * no longer count.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE tag t
+            SET post_count = c.posts
+            FROM (
+                SELECT t2.id, count(p.id) AS posts
+                FROM tag t2
+                LEFT JOIN post_tags pt ON pt.tag_id = t2.id
+                LEFT JOIN post p ON p.id = pt.post_id AND p.deleted_at IS NULL
+                GROUP BY t2.id
+            ) c
+            WHERE c.id = t.id AND t.post_count <> c.posts
+            """, nativeQuery = true)
+    int reconcilePostCounts();
 }
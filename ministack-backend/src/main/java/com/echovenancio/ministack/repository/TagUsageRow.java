@@ -0,0 +1,8 @@
+package com.echovenancio.ministack.repository;
+
+/** A tag name with the number of posts using it. */
+public interface TagUsageRow {
+    Long getId();
+    String getName();
+    Long getPosts();
+}
@@ -0,0 +1,14 @@
+package com.echovenancio.ministack.repository;
+
+import java.time.LocalDateTime;
+
+public interface ThreadReplyRow {
+    Long getId();
+    Long getParentReplyId();
+    String getBody();
+    Long getUserId();
+    String getUsername();
+    LocalDateTime getCreatedAt();
+    Integer getDepth();
+    Boolean getDeleted();
+}
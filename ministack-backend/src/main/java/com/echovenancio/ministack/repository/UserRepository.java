@@ -1,12 +1,22 @@
 package com.echovenancio.ministack.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.echovenancio.ministack.entity.User;
 
 public interface UserRepository extends JpaRepository<com.echovenancio.ministack.entity.User, Long> {
     public Optional<User> findByUsername(String username);
     public Optional<User> findByEmail(String email);
+    public List<User> findByEmailIn(Collection<String> emails);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
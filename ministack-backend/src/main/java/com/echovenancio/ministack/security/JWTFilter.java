@@ -2,14 +2,15 @@ package com.echovenancio.ministack.security;
 
 import java.io.IOException;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.echovenancio.ministack.models.AuthenticatedUser;
 import com.echovenancio.ministack.service.MyUserDetailsService;
 
 import jakarta.servlet.FilterChain;
@@ -39,15 +40,18 @@ public class JWTFilter extends OncePerRequestFilter {
                 response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid JWT Token in Bearer Header");
             } else {
                 try {
-                    String email = jwtUtil.validateTokenAndRetrieveSubject(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email,
-                            userDetails.getPassword(), userDetails.getAuthorities());
-                    if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    DecodedJWT token = jwtUtil.verify(jwt);
+                    // The cached lookup confirms the account still exists, so removing it revokes its tokens.
+                    AuthenticatedUser user = userDetailsService.loadPrincipal(token.getClaim("email").asString());
+                    if (JWTUtil.issuedTo(token, user)
+                            && SecurityContextHolder.getContext().getAuthentication() == null) {
+                        SecurityContextHolder.getContext().setAuthentication(
+                                new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
                     }
                 } catch (JWTVerificationException exc) {
                     response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid JWT Token");
+                } catch (UsernameNotFoundException exc) {
+                    // The account is gone; the request goes on unauthenticated.
                 }
             }
         }
@@ -1,34 +1,109 @@
 package com.echovenancio.ministack.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.RegisteredClaims;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.echovenancio.ministack.models.AuthenticatedUser;
+import com.echovenancio.ministack.utils.BoundedCache;
 
 @Component
 public class JWTUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String ISSUER = "Ministack";
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String USERNAME_CLAIM = "username";
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Duration tokenTtl;
+
+    // Tokens that already passed verification, keyed by SHA-256 so the cache never holds a usable token.
+    private final BoundedCache<String, DecodedJWT> verified;
 
-    public String generateToken(String email) throws IllegalArgumentException, JWTCreationException {
+    public JWTUtil(@Value("${jwt.secret}") String secret,
+            @Value("${ministack.auth.token-cache.max-size:10000}") int maxSize,
+            @Value("${ministack.auth.token-cache.ttl:10m}") Duration ttl,
+            @Value("${ministack.auth.token-ttl:24h}") Duration tokenTtl) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        // Tokens issued before they carried an expiry would never lapse, so they are refused.
+        this.verifier = JWT.require(algorithm).withIssuer(ISSUER).withClaimPresence(RegisteredClaims.EXPIRES_AT)
+                .build();
+        this.tokenTtl = tokenTtl;
+        this.verified = new BoundedCache<>(maxSize, ttl);
+    }
+
+    /** The id pins the token to one account: a later account under the same email can't use it. */
+    public String generateToken(AuthenticatedUser user) throws IllegalArgumentException, JWTCreationException {
+        Instant now = Instant.now();
         return JWT.create()
                 .withSubject("User Details")
-                .withClaim("email", email)
-                .withIssuer("Ministack")
-                .withIssuedAt(new java.util.Date())
-                .sign(Algorithm.HMAC256(secret));
+                .withClaim("email", user.email())
+                .withClaim(USER_ID_CLAIM, user.id())
+                .withClaim(USERNAME_CLAIM, user.username())
+                .withIssuer(ISSUER)
+                .withIssuedAt(now)
+                .withExpiresAt(now.plus(tokenTtl))
+                .sign(algorithm);
     }
 
     public String validateTokenAndRetrieveSubject(String token) throws JWTVerificationException {
-        return JWT.require(Algorithm.HMAC256(secret))
-                .withIssuer("Ministack")
-                .build()
-                .verify(token)
-                .getClaim("email")
-                .asString();
+        return verify(token).getClaim("email").asString();
+    }
+
+    /**
+     * Verifies the token, or returns the earlier result for a token seen before.
+     * A cached token is dropped no later than its own expiry.
+     */
+    public DecodedJWT verify(String token) throws JWTVerificationException {
+        String key = hash(token);
+        DecodedJWT cached = verified.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        DecodedJWT decoded = verifier.verify(token);
+        Instant expiresAt = decoded.getExpiresAtAsInstant();
+        if (expiresAt == null) {
+            verified.put(key, decoded);
+        } else {
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+            if (remaining.isPositive()) {
+                verified.put(key, decoded, remaining);
+            }
+        }
+        return decoded;
+    }
+
+    /** Whether a verified token was issued to this account, rather than an earlier one with its email. */
+    public static boolean issuedTo(DecodedJWT token, AuthenticatedUser user) {
+        Long id = token.getClaim(USER_ID_CLAIM).asLong();
+        return id != null && id.equals(user.id());
+    }
+
+    public BoundedCache.Stats tokenCacheStats() {
+        return verified.stats();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
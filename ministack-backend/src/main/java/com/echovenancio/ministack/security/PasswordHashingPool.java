@@ -0,0 +1,58 @@
+package com.echovenancio.ministack.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing (register, login) off the request threads, on a fixed
+ * number of threads with a bounded queue. A burst of sign-ins can use at most
+ * those threads' worth of CPU; past the queue limit it is turned away at once
+ * instead of waiting, and reads carry on unaffected.
+ */
+@Component
+public class PasswordHashingPool {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingPool(@Value("${ministack.auth.hashing.threads:0}") int threads,
+            @Value("${ministack.auth.hashing.queue-capacity:100}") int queueCapacity) {
+        // By default half the cores, so hashing never takes all of them.
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues work that hashes a password.
+     *
+     * @throws RejectedExecutionException when every thread is busy and the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(work, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.echovenancio.ministack.security;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.echovenancio.ministack.utils.TokenBucketLimiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Token-bucket limits on the expensive and abusable routes, answered with 429
+ * and Retry-After once a client's bucket is empty:
+ *
+ * - auth: sign-in and registration (each a password hash), per client address;
+ * - writes: POST, PUT, PATCH and DELETE under /api/posts and /api/import, per
+ *   signed-in user, or per address for anonymous requests.
+ *
+ * Runs after JWTFilter so writes can be keyed by user. Everything else passes
+ * straight through.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final int STRIPES = 64;
+
+    private final TokenBucketLimiter authLimiter;
+    private final TokenBucketLimiter writeLimiter;
+
+    public RateLimitFilter(
+            @Value("${ministack.ratelimit.auth.capacity:10}") int authCapacity,
+            @Value("${ministack.ratelimit.auth.refill-per-minute:10}") int authRefillPerMinute,
+            @Value("${ministack.ratelimit.writes.capacity:60}") int writeCapacity,
+            @Value("${ministack.ratelimit.writes.refill-per-minute:60}") int writeRefillPerMinute) {
+        this(new TokenBucketLimiter(authCapacity, authRefillPerMinute, STRIPES),
+                new TokenBucketLimiter(writeCapacity, writeRefillPerMinute, STRIPES));
+    }
+
+    RateLimitFilter(TokenBucketLimiter authLimiter, TokenBucketLimiter writeLimiter) {
+        this.authLimiter = authLimiter;
+        this.writeLimiter = writeLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+        long waitNanos = 0;
+        if (uri.startsWith("/api/auth/")) {
+            if ("POST".equals(method)) {
+                waitNanos = authLimiter.tryAcquire(request.getRemoteAddr());
+            }
+        } else if (isWrite(method) && (uri.startsWith("/api/posts") || uri.startsWith("/api/import"))) {
+            waitNanos = writeLimiter.tryAcquire(clientKey(request));
+        }
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            response.sendError(429, "Too many requests");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${ministack.ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = authLimiter.evictIdle() + writeLimiter.evictIdle();
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
+    // The principal's name is the email, already held by the token; nothing is built per request.
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return request.getRemoteAddr();
+    }
+}
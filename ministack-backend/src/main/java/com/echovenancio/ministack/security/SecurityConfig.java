@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,7 +13,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -32,10 +32,12 @@ import com.echovenancio.ministack.service.MyUserDetailsService;
 public class SecurityConfig {
 
     private final JWTFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final MyUserDetailsService uds;
 
-    public SecurityConfig(JWTFilter jwtFilter, MyUserDetailsService uds) {
+    public SecurityConfig(JWTFilter jwtFilter, RateLimitFilter rateLimitFilter, MyUserDetailsService uds) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.uds = uds;
     }
 
@@ -60,6 +62,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/suggest").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/tags").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers("/error").permitAll()
@@ -79,6 +83,7 @@ public class SecurityConfig {
                 .userDetailsService(uds);
 
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JWTFilter.class);
 
         return http.build();
     }
@@ -129,7 +134,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${ministack.auth.bcrypt-strength:10}") int strength) {
+        return new CostAwareBCryptPasswordEncoder(strength);
     }
 }
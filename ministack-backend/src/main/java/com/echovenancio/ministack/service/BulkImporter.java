@@ -0,0 +1,307 @@
+package com.echovenancio.ministack.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Reply;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.ImportError;
+import com.echovenancio.ministack.models.ImportPost;
+import com.echovenancio.ministack.models.ImportReply;
+import com.echovenancio.ministack.models.ImportResult;
+import com.echovenancio.ministack.repository.BulkContentWriter;
+import com.echovenancio.ministack.repository.BulkContentWriter.NewPost;
+import com.echovenancio.ministack.repository.BulkContentWriter.NewReply;
+import com.echovenancio.ministack.repository.TagRepository;
+import com.echovenancio.ministack.repository.UserRepository;
+import com.echovenancio.ministack.utils.AfterCommit;
+import com.echovenancio.ministack.utils.ReplyPath;
+import com.echovenancio.ministack.utils.Result;
+
+/**
+ * Imports posts with their reply trees in a fixed number of statements per
+ * batch, however many rows it holds: one query each for the referenced users
+ * and tags, one per sequence for the ids, then JDBC batches for the rows.
+ *
+ * Every post is checked before anything is written. A post that fails is
+ * skipped with all its replies and reported by index; the rest go in together.
+ */
+@Service
+public class BulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+
+    static final int MAX_TAGS = 5;
+
+    private final UserRepository userRepo;
+    private final TagDictionary tagDictionary;
+    private final TagRepository tagRepo;
+    private final BulkContentWriter writer;
+    private final PostSearchEngine searchEngine;
+    private final SuggestionIndex suggestions;
+    private final PostSearchCache searchCache;
+
+    public BulkImporter(UserRepository userRepo, TagDictionary tagDictionary, TagRepository tagRepo,
+            BulkContentWriter writer, PostSearchEngine searchEngine,
+            SuggestionIndex suggestions, PostSearchCache searchCache) {
+        this.userRepo = userRepo;
+        this.tagDictionary = tagDictionary;
+        this.tagRepo = tagRepo;
+        this.writer = writer;
+        this.searchEngine = searchEngine;
+        this.suggestions = suggestions;
+        this.searchCache = searchCache;
+    }
+
+    /** Everything the rows of one import are built from, resolved once up front. */
+    private static final class Batch {
+
+        final Map<String, User> users;
+        final User importer;
+        final Map<String, Tag> tags;
+        final LocalDateTime now = LocalDateTime.now();
+        final List<NewPost> posts = new ArrayList<>();
+        final List<NewReply> replies = new ArrayList<>();
+        Iterator<Long> postIds;
+        Iterator<Long> replyIds;
+
+        Batch(Map<String, User> users, User importer, Map<String, Tag> tags) {
+            this.users = users;
+            this.importer = importer;
+            this.tags = tags;
+        }
+
+        Long authorId(String email) {
+            User author = email == null ? importer : users.get(email);
+            return author == null ? null : author.getId();
+        }
+
+        /** Parents are added before their children; returns the size of the whole forest. */
+        long addReplies(List<ImportReply> replies, long postId, Long parentId, String path) {
+            if (replies == null) {
+                return 0;
+            }
+            long count = 0;
+            for (ImportReply reply : replies) {
+                long id = replyIds.next();
+                int children = reply.replies() == null ? 0 : reply.replies().size();
+                this.replies.add(new NewReply(id, reply.body(), postId, parentId, authorId(reply.authorEmail()),
+                        reply.createdAt() != null ? reply.createdAt() : now, path, children));
+                count += 1 + addReplies(reply.replies(), postId, id, path + ReplyPath.segment(id));
+            }
+            return count;
+        }
+    }
+
+    @Transactional
+    public Result<ImportResult, ErrorResponse> importPosts(List<ImportPost> posts, String importerEmail) {
+        long start = System.currentTimeMillis();
+        Set<String> emails = new HashSet<>();
+        emails.add(importerEmail);
+        Set<String> tagNames = new HashSet<>();
+        for (ImportPost post : posts) {
+            if (post.authorEmail() != null) {
+                emails.add(post.authorEmail());
+            }
+            if (post.tags() != null) {
+                tagNames.addAll(post.tags());
+            }
+            collectEmails(post.replies(), emails);
+        }
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepo.findByEmailIn(emails)) {
+            users.put(user.getEmail(), user);
+        }
+        User importer = users.get(importerEmail);
+        if (importer == null) {
+            return Result.error(new ErrorResponse("User not found", "401"));
+        }
+        Batch batch = new Batch(users, importer, tagDictionary.resolve(tagNames));
+
+        List<ImportError> errors = new ArrayList<>();
+        List<ImportPost> accepted = new ArrayList<>();
+        int replyCount = 0;
+        for (int i = 0; i < posts.size(); i++) {
+            String error = check(posts.get(i), batch);
+            if (error != null) {
+                errors.add(new ImportError(i, error));
+            } else {
+                accepted.add(posts.get(i));
+                replyCount += countReplies(posts.get(i).replies());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Result.success(new ImportResult(0, 0, errors));
+        }
+
+        batch.postIds = writer.allocateIds("post_seq", Post.ID_ALLOCATION_SIZE, accepted.size()).iterator();
+        batch.replyIds = writer.allocateIds("reply_seq", Reply.ID_ALLOCATION_SIZE, replyCount).iterator();
+        Map<Long, Long> tagUses = new HashMap<>();
+        for (ImportPost post : accepted) {
+            long postId = batch.postIds.next();
+            Set<Long> tagIds = new HashSet<>();
+            if (post.tags() != null) {
+                for (String name : post.tags()) {
+                    tagIds.add(batch.tags.get(name).getId());
+                }
+            }
+            tagIds.forEach(tagId -> tagUses.merge(tagId, 1L, Long::sum));
+            long replies = batch.addReplies(post.replies(), postId, null, "");
+            batch.posts.add(new NewPost(postId, post.title(), post.body(), batch.authorId(post.authorEmail()),
+                    post.createdAt() != null ? post.createdAt() : batch.now, replies, tagIds));
+        }
+        writer.insertPosts(batch.posts);
+        writer.insertReplies(batch.replies);
+        adjustTagCounts(tagUses);
+        publish(batch);
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        int rows = batch.posts.size() + batch.replies.size();
+        logger.info("Imported {} posts and {} replies in {} ms ({} rows/s), skipped {}", batch.posts.size(),
+                batch.replies.size(), elapsed, rows * 1000L / elapsed, errors.size());
+        return Result.success(new ImportResult(batch.posts.size(), batch.replies.size(), errors));
+    }
+
+    public static int countReplies(List<ImportReply> replies) {
+        if (replies == null) {
+            return 0;
+        }
+        int count = replies.size();
+        for (ImportReply reply : replies) {
+            count += countReplies(reply.replies());
+        }
+        return count;
+    }
+
+    /** Whether every post and reply is left to the importer or names them explicitly. */
+    public static boolean authoredOnlyBy(List<ImportPost> posts, String email) {
+        for (ImportPost post : posts) {
+            if (post.authorEmail() != null && !post.authorEmail().equals(email)) {
+                return false;
+            }
+            if (!repliesAuthoredOnlyBy(post.replies(), email)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean repliesAuthoredOnlyBy(List<ImportReply> replies, String email) {
+        if (replies == null) {
+            return true;
+        }
+        for (ImportReply reply : replies) {
+            if (reply.authorEmail() != null && !reply.authorEmail().equals(email)) {
+                return false;
+            }
+            if (!repliesAuthoredOnlyBy(reply.replies(), email)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void collectEmails(List<ImportReply> replies, Set<String> emails) {
+        if (replies == null) {
+            return;
+        }
+        for (ImportReply reply : replies) {
+            if (reply.authorEmail() != null) {
+                emails.add(reply.authorEmail());
+            }
+            collectEmails(reply.replies(), emails);
+        }
+    }
+
+    /** The first reason the post can't be imported, or null. */
+    private static String check(ImportPost post, Batch batch) {
+        if (post.title() == null || post.title().isBlank()) {
+            return "Title is required";
+        }
+        if (post.body() == null || post.body().isBlank()) {
+            return "Body is required";
+        }
+        if (batch.authorId(post.authorEmail()) == null) {
+            return "User not found: " + post.authorEmail();
+        }
+        if (post.tags() != null) {
+            if (post.tags().size() > MAX_TAGS) {
+                return "Tags must be at most " + MAX_TAGS + " items";
+            }
+            for (String name : post.tags()) {
+                if (!batch.tags.containsKey(name)) {
+                    return "Tag not found: " + name;
+                }
+            }
+        }
+        return checkReplies(post.replies(), batch);
+    }
+
+    private static String checkReplies(List<ImportReply> replies, Batch batch) {
+        if (replies == null) {
+            return null;
+        }
+        for (ImportReply reply : replies) {
+            if (reply.body() == null || reply.body().isBlank()) {
+                return "Reply body is required";
+            }
+            if (batch.authorId(reply.authorEmail()) == null) {
+                return "User not found: " + reply.authorEmail();
+            }
+            String error = checkReplies(reply.replies(), batch);
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    // Tags used equally often share one UPDATE.
+    private void adjustTagCounts(Map<Long, Long> tagUses) {
+        Map<Long, List<Long>> byDelta = new HashMap<>();
+        tagUses.forEach((tagId, uses) -> byDelta.computeIfAbsent(uses, d -> new ArrayList<>()).add(tagId));
+        byDelta.forEach((delta, tagIds) -> tagRepo.adjustPostCount(tagIds, delta));
+    }
+
+    /*
+     * Search and suggestions are fed from the rows just written rather than
+     * reloaded, and only once the import commits.
+     */
+    private void publish(Batch batch) {
+        Map<Long, User> authors = new HashMap<>();
+        batch.users.values().forEach(user -> authors.put(user.getId(), user));
+        Map<Long, Tag> tags = new HashMap<>();
+        batch.tags.values().forEach(tag -> tags.put(tag.getId(), tag));
+        List<Post> posts = new ArrayList<>(batch.posts.size());
+        for (NewPost row : batch.posts) {
+            Post post = new Post(row.id(), row.title(), row.body(), authors.get(row.userId()));
+            post.setCreatedAt(row.createdAt());
+            post.setReplyCount(row.replyCount());
+            Set<Tag> postTags = new HashSet<>();
+            row.tagIds().forEach(tagId -> postTags.add(tags.get(tagId)));
+            post.setTags(postTags);
+            posts.add(post);
+        }
+        AfterCommit.run(() -> {
+            for (Post post : posts) {
+                searchEngine.index(post);
+                suggestions.addPost(post);
+            }
+        });
+        searchCache.evictAll();
+    }
+}
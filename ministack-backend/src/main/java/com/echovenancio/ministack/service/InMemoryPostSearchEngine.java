@@ -0,0 +1,376 @@
+package com.echovenancio.ministack.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.exceptions.UnsupportedSortException;
+import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TagMatchMode;
+import com.echovenancio.ministack.models.TotalEstimate;
+import com.echovenancio.ministack.repository.PostRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Inverted index over post titles, bodies and tags held in process memory, so
+ * search reads never touch the database. Built from the repository at startup and
+ * kept current by the post write paths through {@link #index} and {@link #remove}.
+ *
+ * Like the SQL engine, a query matches posts containing every one of its words.
+ * Results come back newest first by {@code (createdAt, id)}, or in the order the
+ * caller asks for; ids alone say nothing about age, since imports backdate posts
+ * and pooled id blocks interleave across nodes. Only {@code createdAt} and
+ * {@code id} can be sorted on.
+ */
+@Service
+@ConditionalOnProperty(name = "ministack.search.engine", havingValue = "memory")
+public class InMemoryPostSearchEngine implements PostSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryPostSearchEngine.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // Same ratio as ts_rank's default weights for 'A' (title) and 'B' (body) lexemes.
+    private static final float TITLE_WEIGHT = 1.0f;
+    private static final float BODY_WEIGHT = 0.4f;
+
+    private static final int SNIPPET_WORDS = 20;
+
+    private record IndexedPost(PostDto dto, LocalDateTime createdAt, Set<String> titleTerms, Set<String> bodyTerms,
+            Set<Long> tagIds) {
+
+        Set<String> terms() {
+            Set<String> all = new HashSet<>(titleTerms);
+            all.addAll(bodyTerms);
+            return all;
+        }
+
+        float score(Set<String> queryTerms) {
+            float score = 0;
+            for (String term : queryTerms) {
+                if (titleTerms.contains(term)) {
+                    score += TITLE_WEIGHT;
+                }
+                if (bodyTerms.contains(term)) {
+                    score += BODY_WEIGHT;
+                }
+            }
+            return score;
+        }
+    }
+
+    private record ScoredPost(long id, float score) {
+    }
+
+    private static final Comparator<IndexedPost> BY_CREATED_AT = Comparator.comparing(IndexedPost::createdAt,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final Comparator<IndexedPost> BY_ID = Comparator.comparing((IndexedPost post) -> post.dto().getId());
+
+    private static final Comparator<IndexedPost> NEWEST_FIRST = BY_CREATED_AT.thenComparing(BY_ID).reversed();
+
+    // Worst candidate first, so the heap head is the one to drop.
+    private static final Comparator<ScoredPost> WORST_FIRST = Comparator.comparingDouble(ScoredPost::score)
+            .thenComparingLong(ScoredPost::id);
+
+    private final PostRepository postRepo;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedPost> posts = new HashMap<>();
+    private final Map<String, PostingList> termPostings = new HashMap<>();
+    private final Map<Long, PostingList> tagPostings = new HashMap<>();
+    private final PostingList allPosts = new PostingList();
+
+    public InMemoryPostSearchEngine(PostRepository postRepo) {
+        this.postRepo = postRepo;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = Long.MIN_VALUE;
+        int total = 0;
+        while (true) {
+            List<Long> ids = postRepo.findIdsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Post post : postRepo.findByIdIn(ids)) {
+                index(post);
+            }
+            total += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        logger.info("Indexed {} posts in memory in {} ms", total, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Keeps only the first {@code offset + size} matches in a bounded heap, so
+     * ordering work grows with the page position, not with the number of matches.
+     */
+    @Override
+    public Page<PostDto> search(PostSearchFilter filter, Pageable pageable) {
+        Comparator<IndexedPost> order = order(pageable.getSort());
+        lock.readLock().lock();
+        try {
+            PostingList matches = match(filter);
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            int k = pageable.isPaged() ? (int) Math.min(matches.size(), offset + pageable.getPageSize())
+                    : matches.size();
+            PriorityQueue<IndexedPost> heap = new PriorityQueue<>(Math.max(1, k), order.reversed());
+            for (int i = 0; i < matches.size() && k > 0; i++) {
+                IndexedPost candidate = posts.get(matches.get(i));
+                if (heap.size() < k) {
+                    heap.add(candidate);
+                } else if (order.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+            List<IndexedPost> first = new ArrayList<>(heap);
+            first.sort(order);
+            List<PostDto> content = new ArrayList<>();
+            for (long i = offset; i < first.size(); i++) {
+                content.add(first.get((int) i).dto());
+            }
+            return new PageImpl<>(content, pageable, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Slice<PostDto> searchSlice(PostSearchFilter filter, Pageable pageable) {
+        Page<PostDto> page = search(filter, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    /**
+     * Scores every match but keeps only the best {@code offset + size + 1} in a
+     * bounded min-heap, so memory and ordering work grow with K, not with the
+     * number of matches.
+     */
+    @Override
+    public Slice<PostDto> searchByRelevance(PostSearchFilter filter, Pageable pageable, boolean snippets) {
+        Set<String> queryTerms = SearchTokenizer.tokenize(filter.query());
+        int limit = pageable.getPageSize();
+        int k = (int) Math.min(Integer.MAX_VALUE - 1, pageable.getOffset() + limit) + 1;
+
+        List<IndexedPost> window = new ArrayList<>();
+        boolean hasNext;
+        lock.readLock().lock();
+        try {
+            PostingList matches = match(filter);
+            PriorityQueue<ScoredPost> heap = new PriorityQueue<>(Math.min(k, Math.max(1, matches.size())),
+                    WORST_FIRST);
+            for (int i = 0; i < matches.size(); i++) {
+                long id = matches.get(i);
+                ScoredPost candidate = new ScoredPost(id, posts.get(id).score(queryTerms));
+                if (heap.size() < k) {
+                    heap.add(candidate);
+                } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+            List<ScoredPost> best = new ArrayList<>(heap);
+            best.sort(WORST_FIRST.reversed());
+            hasNext = best.size() > pageable.getOffset() + limit;
+            for (long i = pageable.getOffset(); i < best.size() && window.size() < limit; i++) {
+                window.add(posts.get(best.get((int) i).id()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<PostDto> content = new ArrayList<>(window.size());
+        for (IndexedPost post : window) {
+            PostDto dto = copyOf(post.dto());
+            if (snippets) {
+                dto.setSnippet(SnippetBuilder.highlight(dto.getBody(), queryTerms, SNIPPET_WORDS));
+            }
+            content.add(dto);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /** Match counts are exact and free here, so the total is never approximate. */
+    @Override
+    public TotalEstimate estimateTotal(PostSearchFilter filter) {
+        lock.readLock().lock();
+        try {
+            return new TotalEstimate(match(filter).size(), false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Post post) {
+        Set<String> titleTerms = SearchTokenizer.tokenize(post.getTitle());
+        Set<String> bodyTerms = SearchTokenizer.tokenize(post.getBody());
+        Set<Long> tagIds = post.getTags() == null ? Set.of()
+                : post.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+        IndexedPost indexed = new IndexedPost(new PostDto(post), post.getCreatedAt(), titleTerms, bodyTerms,
+                tagIds);
+        Set<String> terms = indexed.terms();
+
+        lock.writeLock().lock();
+        try {
+            unindex(post.getId());
+            posts.put(post.getId(), indexed);
+            allPosts.add(post.getId());
+            for (String term : terms) {
+                termPostings.computeIfAbsent(term, t -> new PostingList()).add(post.getId());
+            }
+            for (Long tagId : tagIds) {
+                tagPostings.computeIfAbsent(tagId, t -> new PostingList()).add(post.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            unindex(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void adjustReplies(Long postId, long delta) {
+        lock.writeLock().lock();
+        try {
+            IndexedPost indexed = posts.get(postId);
+            if (indexed == null) {
+                return;
+            }
+            // A fresh copy: readers may still hold the DTO handed out before.
+            PostDto dto = copyOf(indexed.dto());
+            dto.setReplyCount(Math.max(0, dto.getReplyCount() + delta));
+            posts.put(postId, new IndexedPost(dto, indexed.createdAt(), indexed.titleTerms(), indexed.bodyTerms(),
+                    indexed.tagIds()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Long postId) {
+        IndexedPost previous = posts.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        allPosts.remove(postId);
+        for (String term : previous.terms()) {
+            removePosting(termPostings, term, postId);
+        }
+        for (Long tagId : previous.tagIds()) {
+            removePosting(tagPostings, tagId, postId);
+        }
+    }
+
+    // Ties always fall back to newest first, so every order is total and pages never overlap.
+    private static Comparator<IndexedPost> order(Sort sort) {
+        Comparator<IndexedPost> order = null;
+        for (Sort.Order requested : sort) {
+            Comparator<IndexedPost> by = switch (requested.getProperty()) {
+                case "createdAt" -> BY_CREATED_AT;
+                case "id" -> BY_ID;
+                default -> throw new UnsupportedSortException(requested.getProperty());
+            };
+            if (requested.isDescending()) {
+                by = by.reversed();
+            }
+            order = order == null ? by : order.thenComparing(by);
+        }
+        return order == null ? NEWEST_FIRST : order.thenComparing(NEWEST_FIRST);
+    }
+
+    private static PostDto copyOf(PostDto dto) {
+        return new PostDto(dto.getId(), dto.getTitle(), dto.getBody(), dto.getAuthorUsername(), dto.getTags(),
+                dto.getReplyCount(), dto.getCreatedAt(), null);
+    }
+
+    private static <K> void removePosting(Map<K, PostingList> postings, K key, long postId) {
+        PostingList list = postings.get(key);
+        if (list != null && list.remove(postId) && list.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private PostingList match(PostSearchFilter filter) {
+        List<PostingList> required = new ArrayList<>();
+        if (filter.query() != null) {
+            Set<String> terms = SearchTokenizer.tokenize(filter.query());
+            if (terms.isEmpty()) {
+                return new PostingList();
+            }
+            for (String term : terms) {
+                PostingList list = termPostings.get(term);
+                if (list == null) {
+                    return new PostingList();
+                }
+                required.add(list);
+            }
+        }
+        if (filter.hasTags()) {
+            if (filter.tagMode() == TagMatchMode.ALL) {
+                for (Long tagId : filter.tagIds()) {
+                    PostingList list = tagPostings.get(tagId);
+                    if (list == null) {
+                        return new PostingList();
+                    }
+                    required.add(list);
+                }
+            } else {
+                PostingList anyTag = new PostingList();
+                for (Long tagId : filter.tagIds()) {
+                    PostingList list = tagPostings.get(tagId);
+                    if (list != null) {
+                        anyTag = anyTag.union(list);
+                    }
+                }
+                required.add(anyTag);
+            }
+        }
+        if (required.isEmpty()) {
+            return allPosts.copy();
+        }
+        // Intersect smallest first so the candidate set shrinks as fast as possible.
+        required.sort(Comparator.comparingInt(PostingList::size));
+        PostingList result = required.get(0).copy();
+        for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+            result = result.intersect(required.get(i));
+        }
+        return result;
+    }
+}
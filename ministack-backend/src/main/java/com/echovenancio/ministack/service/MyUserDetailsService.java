@@ -1,24 +1,38 @@
 package com.echovenancio.ministack.service;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.Collections;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
 import com.echovenancio.ministack.repository.UserRepository;
+import com.echovenancio.ministack.utils.BoundedCache;
 
 @Component
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    @Autowired
-    private UserRepository userRepository;
+    private final UserRepository userRepository;
 
+    // Token-authenticated requests only need who the user is, so that is all this holds.
+    private final BoundedCache<String, AuthenticatedUser> principals;
+
+    public MyUserDetailsService(UserRepository userRepository,
+            @Value("${ministack.auth.principal-cache.max-size:10000}") int maxSize,
+            @Value("${ministack.auth.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = new BoundedCache<>(maxSize, ttl);
+    }
+
+    /** For password logins: reads the hash, so it always goes to the database. */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email).orElseThrow(() -> 
@@ -30,4 +44,43 @@ public class MyUserDetailsService implements UserDetailsService {
             Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")) 
         );
     }
+
+    /**
+     * Called by the authentication manager after a successful login whose
+     * stored hash no longer matches the configured cost, with a fresh hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
+
+    /**
+     * The user behind a verified token. Served from memory for up to the cache
+     * TTL after the first lookup; unknown emails are not cached.
+     */
+    public AuthenticatedUser loadPrincipal(String email) throws UsernameNotFoundException {
+        AuthenticatedUser cached = principals.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findByEmail(email).orElseThrow(() ->
+            new UsernameNotFoundException("User not found with email: " + email));
+        AuthenticatedUser principal = AuthenticatedUser.withUserRole(user.getId(), user.getUsername(),
+                user.getEmail());
+        principals.put(email, principal);
+        return principal;
+    }
+
+    /** Call whenever the user with this email is created, changed or removed. */
+    public void evictPrincipal(String email) {
+        principals.invalidate(email);
+    }
+
+    public BoundedCache.Stats principalCacheStats() {
+        return principals.stats();
+    }
 }
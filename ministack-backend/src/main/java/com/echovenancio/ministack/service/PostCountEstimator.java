@@ -0,0 +1,66 @@
+package com.echovenancio.ministack.service;
+
+import java.sql.Types;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TotalEstimate;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.utils.BoundedCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cheap totals for the SQL search. Exact counts computed for a filter are
+ * remembered for a while; without one, the planner's row estimate for the search
+ * query is used, which costs a plan but no scan.
+ */
+@Service
+public class PostCountEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCountEstimator.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<PostSearchFilter, Long> counts = new BoundedCache<>(1000, Duration.ofMinutes(5));
+
+    public PostCountEstimator(NamedParameterJdbcTemplate jdbc, ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Remembers an exact count so later estimates for the same filter can reuse it. */
+    public void record(PostSearchFilter filter, long count) {
+        counts.put(filter, count);
+    }
+
+    public TotalEstimate estimate(PostSearchFilter filter) {
+        Long cached = counts.get(filter);
+        if (cached != null) {
+            return new TotalEstimate(cached, true);
+        }
+        return new TotalEstimate(plannerEstimate(filter), true);
+    }
+
+    private long plannerEstimate(PostSearchFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", filter.query(), Types.VARCHAR)
+                .addValue("tagIds", filter.tagIdsParam(), Types.VARCHAR)
+                .addValue("requiredTagMatches", filter.requiredTagMatches(), Types.INTEGER);
+        String plan = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + PostRepository.FULL_TEXT_SEARCH_QUERY,
+                params, String.class);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong(0);
+        } catch (Exception e) {
+            logger.warn("Could not read planner estimate: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.echovenancio.ministack.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TagMatchMode;
+import com.echovenancio.ministack.utils.AfterCommit;
+import com.echovenancio.ministack.utils.BoundedCache;
+import com.echovenancio.ministack.utils.Cursor;
+
+/**
+ * Caches post listing results by normalized filter and page position. A post
+ * write only evicts the entries whose tag filter the post could satisfy, before
+ * or after the change; listings filtered to unrelated tags stay cached.
+ */
+@Service
+public class PostSearchCache {
+
+    /** A normalized filter plus what was asked of it: mode, page or cursor, size and order. */
+    public record Key(PostSearchFilter filter, String view) {
+
+        public static Key page(PostSearchFilter filter, String mode, Pageable pageable) {
+            String position = pageable.isPaged() ? pageable.getPageNumber() + ":" + pageable.getPageSize() : "all";
+            return new Key(normalize(filter), mode + ":" + position + ":" + pageable.getSort());
+        }
+
+        public static Key cursor(PostSearchFilter filter, Cursor cursor, int limit) {
+            return new Key(normalize(filter), "cursor:" + cursor.encode() + ":" + limit);
+        }
+    }
+
+    private final BoundedCache<Key, Object> results;
+
+    // Bumped by every invalidation, so a load that raced with a write is not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostSearchCache(@Value("${ministack.search.cache.max-size:10000}") int maxSize,
+            @Value("${ministack.search.cache.ttl:30s}") Duration ttl) {
+        this.results = new BoundedCache<>(maxSize, ttl);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        Object cached = results.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long seen = generation.get();
+        T value = loader.get();
+        if (value != null && generation.get() == seen) {
+            results.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Evicts listings the post could appear in with its current tags. Call it
+     * before an update or delete as well as after a create or update.
+     */
+    public int evictFor(Post post) {
+        Set<Long> tagIds = post.getTags() == null ? Set.of()
+                : post.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+        int evicted = evict(tagIds);
+        // Reads between now and the commit still see the old rows; drop what they cached.
+        AfterCommit.run(() -> evict(tagIds));
+        return evicted;
+    }
+
+    /** Evicts every listing, for writes too broad to track tag by tag. */
+    public void evictAll() {
+        clear();
+        AfterCommit.run(this::clear);
+    }
+
+    private int evict(Set<Long> tagIds) {
+        generation.incrementAndGet();
+        return results.invalidateIf(key -> matchesTags(key.filter(), tagIds));
+    }
+
+    public BoundedCache.Stats stats() {
+        return results.stats();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        results.clear();
+    }
+
+    static boolean matchesTags(PostSearchFilter filter, Set<Long> tagIds) {
+        if (!filter.hasTags()) {
+            return true;
+        }
+        if (filter.tagMode() == TagMatchMode.ALL) {
+            return tagIds.containsAll(filter.tagIds());
+        }
+        return filter.tagIds().stream().anyMatch(tagIds::contains);
+    }
+
+    /*
+     * Queries are compared the way the 'simple' text search config reads them
+     * (case and spacing don't matter), tag ids as a set, and a single tag means
+     * the same under either mode.
+     */
+    private static PostSearchFilter normalize(PostSearchFilter filter) {
+        String query = filter.query() == null ? null
+                : String.join(" ", filter.query().trim().toLowerCase(Locale.ROOT).split("\\s+"));
+        List<Long> tagIds = filter.tagIds().stream().distinct().sorted().toList();
+        TagMatchMode mode = tagIds.size() > 1 ? filter.tagMode() : TagMatchMode.ANY;
+        return new PostSearchFilter(query, tagIds, mode);
+    }
+}
@@ -0,0 +1,41 @@
+package com.echovenancio.ministack.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TotalEstimate;
+
+/**
+ * Backend for the paged post listing. Selected with {@code ministack.search.engine}
+ * ({@code sql}, the default, or {@code memory}).
+ */
+public interface PostSearchEngine {
+
+    /** A page with its exact total. */
+    Page<PostDto> search(PostSearchFilter filter, Pageable pageable);
+
+    /** A page without any total, only whether another page follows. */
+    Slice<PostDto> searchSlice(PostSearchFilter filter, Pageable pageable);
+
+    /**
+     * The best matches for the filter's query, most relevant first. Title matches
+     * outrank body matches; snippets are only built for the returned posts.
+     */
+    Slice<PostDto> searchByRelevance(PostSearchFilter filter, Pageable pageable, boolean snippets);
+
+    /** The number of matches, exact or approximate, without counting if avoidable. */
+    TotalEstimate estimateTotal(PostSearchFilter filter);
+
+    /** Called after a post has been created or updated. */
+    void index(Post post);
+
+    /** Called after a post has been deleted. */
+    void remove(Long postId);
+
+    /** Called after a reply to the post has been created or deleted. */
+    void adjustReplies(Long postId, long delta);
+}
@@ -0,0 +1,111 @@
+package com.echovenancio.ministack.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of post ids backed by a primitive array. New posts get the highest
+ * ids, so additions are usually appends.
+ */
+public final class PostingList {
+
+    private long[] ids;
+    private int size;
+
+    public PostingList() {
+        this(new long[4], 0);
+    }
+
+    private PostingList(long[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return ids[index];
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    public boolean add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    public PostingList copy() {
+        return new PostingList(Arrays.copyOf(ids, size), size);
+    }
+
+    /** Ids present in both lists; walks the shorter one and probes the longer. */
+    public PostingList intersect(PostingList other) {
+        PostingList small = size <= other.size ? this : other;
+        PostingList large = small == this ? other : this;
+        long[] result = new long[small.size];
+        int n = 0;
+        for (int i = 0; i < small.size; i++) {
+            if (large.contains(small.ids[i])) {
+                result[n++] = small.ids[i];
+            }
+        }
+        return new PostingList(result, n);
+    }
+
+    /** Ids present in either list, merged in order. */
+    public PostingList union(PostingList other) {
+        long[] result = new long[size + other.size];
+        int i = 0, j = 0, n = 0;
+        while (i < size && j < other.size) {
+            long a = ids[i], b = other.ids[j];
+            if (a < b) {
+                result[n++] = a;
+                i++;
+            } else if (b < a) {
+                result[n++] = b;
+                j++;
+            } else {
+                result[n++] = a;
+                i++;
+                j++;
+            }
+        }
+        while (i < size) {
+            result[n++] = ids[i++];
+        }
+        while (j < other.size) {
+            result[n++] = other.ids[j++];
+        }
+        return new PostingList(result, n);
+    }
+}
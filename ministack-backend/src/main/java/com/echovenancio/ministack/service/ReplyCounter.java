@@ -0,0 +1,77 @@
+package com.echovenancio.ministack.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Reply;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.ReplyRepository;
+import com.echovenancio.ministack.utils.AfterCommit;
+
+/**
+ * Keeps {@code post.reply_count} and {@code reply.child_count} in step with reply
+ * writes. Adjustments join the caller's transaction, so a counter only moves if
+ * the reply change commits; {@link #reconcile} repairs any drift left by writes
+ * made outside the app. The post's search entry and suggestion follow once the
+ * change commits.
+ */
+@Service
+public class ReplyCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplyCounter.class);
+
+    private final PostRepository postRepo;
+    private final ReplyRepository replyRepo;
+    private final PostSearchEngine searchEngine;
+    private final SuggestionIndex suggestions;
+
+    public ReplyCounter(PostRepository postRepo, ReplyRepository replyRepo, PostSearchEngine searchEngine,
+            SuggestionIndex suggestions) {
+        this.postRepo = postRepo;
+        this.replyRepo = replyRepo;
+        this.searchEngine = searchEngine;
+        this.suggestions = suggestions;
+    }
+
+    @Transactional
+    public void replyCreated(Reply reply) {
+        adjust(reply, 1);
+    }
+
+    /** The reply's own children stay on the post, so only it is uncounted. */
+    @Transactional
+    public void replyDeleted(Reply reply) {
+        adjust(reply, -1);
+    }
+
+    @Scheduled(initialDelayString = "${ministack.replies.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${ministack.replies.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        int posts = postRepo.reconcileReplyCounts();
+        int replies = replyRepo.reconcileChildCounts();
+        if (posts + replies > 0) {
+            logger.warn("Repaired {} drifted post reply counts and {} reply child counts", posts, replies);
+        }
+    }
+
+    private void adjust(Reply reply, long delta) {
+        Post post = reply.getPost();
+        if (post != null) {
+            postRepo.adjustReplyCount(post.getId(), delta);
+            Long postId = post.getId();
+            String title = post.getTitle();
+            AfterCommit.run(() -> {
+                searchEngine.adjustReplies(postId, delta);
+                suggestions.adjustReplies(postId, title, delta);
+            });
+        }
+        if (reply.getParentReply() != null) {
+            replyRepo.adjustChildCount(reply.getParentReply().getId(), delta);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.echovenancio.ministack.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.echovenancio.ministack.models.ReplyNode;
+import com.echovenancio.ministack.repository.ThreadReplyRow;
+
+/**
+ * Nests flat thread rows into a reply tree in one pass. Rows must list every
+ * parent before its children, as the thread query does; a row whose parent is
+ * missing from the input is dropped along with its subtree. Deleted replies
+ * are kept only as placeholders for replies below them.
+ */
+public final class ReplyTreeBuilder {
+
+    private ReplyTreeBuilder() {
+    }
+
+    public static List<ReplyNode> build(List<ThreadReplyRow> rows) {
+        List<ReplyNode> roots = new ArrayList<>();
+        Map<Long, List<ReplyNode>> children = new HashMap<>();
+        for (ThreadReplyRow row : rows) {
+            List<ReplyNode> siblings = row.getParentReplyId() == null ? roots : children.get(row.getParentReplyId());
+            if (siblings == null) {
+                continue;
+            }
+            List<ReplyNode> replies = new ArrayList<>();
+            siblings.add(new ReplyNode(row.getId(), row.getBody(), row.getUserId(), row.getUsername(),
+                    row.getCreatedAt() != null ? row.getCreatedAt().toString() : null, row.getDepth(), Boolean.TRUE.equals(row.getDeleted()), replies));
+            children.put(row.getId(), replies);
+        }
+        prune(roots);
+        return roots;
+    }
+
+    // Children first, so a deleted reply whose subtree was all deleted goes too.
+    private static void prune(List<ReplyNode> nodes) {
+        for (ReplyNode node : nodes) {
+            prune(node.replies());
+        }
+        nodes.removeIf(node -> node.deleted() && node.replies().isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+package com.echovenancio.ministack.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds a short excerpt around the first matching word, wrapping matches in
+ * {@code <b>...</b>} the way Postgres' {@code ts_headline} does by default.
+ * Snippets are HTML: everything but the markers is escaped, since bodies are
+ * user input.
+ */
+public final class SnippetBuilder {
+
+    /**
+     * Plain-text match markers for {@code ts_headline}'s StartSel/StopSel, so the
+     * database never emits HTML; {@link #markup} turns them into tags.
+     */
+    public static final char START_SEL = '\u0002';
+    public static final char STOP_SEL = '\u0003';
+
+    private SnippetBuilder() {
+    }
+
+    public static String highlight(String text, Set<String> terms, int maxWords) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        List<int[]> words = wordSpans(text);
+        if (words.isEmpty()) {
+            return "";
+        }
+        int first = 0;
+        for (int i = 0; i < words.size(); i++) {
+            if (matches(text, words.get(i), terms)) {
+                first = i;
+                break;
+            }
+        }
+        // Keep a little leading context before the first match.
+        int from = Math.max(0, Math.min(first - maxWords / 4, words.size() - maxWords));
+        int to = Math.min(words.size(), from + maxWords);
+
+        StringBuilder out = new StringBuilder();
+        int cursor = words.get(from)[0];
+        for (int i = from; i < to; i++) {
+            int[] word = words.get(i);
+            escape(text, cursor, word[0], out);
+            if (matches(text, word, terms)) {
+                out.append("<b>");
+                escape(text, word[0], word[1], out);
+                out.append("</b>");
+            } else {
+                escape(text, word[0], word[1], out);
+            }
+            cursor = word[1];
+        }
+        return out.toString();
+    }
+
+    /** Escapes a {@code ts_headline} result and swaps its markers for {@code <b>} tags. */
+    public static String markup(String marked) {
+        if (marked == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(marked.length() + 16);
+        int cursor = 0;
+        for (int i = 0; i < marked.length(); i++) {
+            char c = marked.charAt(i);
+            if (c == START_SEL || c == STOP_SEL) {
+                escape(marked, cursor, i, out);
+                out.append(c == START_SEL ? "<b>" : "</b>");
+                cursor = i + 1;
+            }
+        }
+        escape(marked, cursor, marked.length(), out);
+        return out.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static boolean matches(String text, int[] word, Set<String> terms) {
+        return terms.contains(text.substring(word[0], word[1]).toLowerCase(Locale.ROOT));
+    }
+
+    private static List<int[]> wordSpans(String text) {
+        List<int[]> spans = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                spans.add(new int[] { start, i });
+                start = -1;
+            }
+        }
+        return spans;
+    }
+}
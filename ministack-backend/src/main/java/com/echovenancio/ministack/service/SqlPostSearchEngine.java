@@ -0,0 +1,96 @@
+package com.echovenancio.ministack.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TotalEstimate;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.PostSummaryRow;
+import com.echovenancio.ministack.repository.RankedPostRow;
+
+/**
+ * Searches straight against Postgres. The database is the index, so writes need
+ * no extra bookkeeping.
+ */
+@Service
+@ConditionalOnProperty(name = "ministack.search.engine", havingValue = "sql", matchIfMissing = true)
+public class SqlPostSearchEngine implements PostSearchEngine {
+
+    private final PostRepository postRepo;
+
+    private final PostCountEstimator countEstimator;
+
+    public SqlPostSearchEngine(PostRepository postRepo, PostCountEstimator countEstimator) {
+        this.postRepo = postRepo;
+        this.countEstimator = countEstimator;
+    }
+
+    @Override
+    public Page<PostDto> search(PostSearchFilter filter, Pageable pageable) {
+        Page<PostDto> page = postRepo
+                .fullTextSearch(filter.query(), filter.tagIdsParam(), filter.requiredTagMatches(), pageable)
+                .map(PostDto::new);
+        countEstimator.record(filter, page.getTotalElements());
+        return page;
+    }
+
+    @Override
+    public Slice<PostDto> searchSlice(PostSearchFilter filter, Pageable pageable) {
+        return postRepo
+                .fullTextSearchSlice(filter.query(), filter.tagIdsParam(), filter.requiredTagMatches(), pageable)
+                .map(PostDto::new);
+    }
+
+    @Override
+    public Slice<PostDto> searchByRelevance(PostSearchFilter filter, Pageable pageable, boolean snippets) {
+        int limit = pageable.getPageSize();
+        List<RankedPostRow> rows = postRepo.findTopRanked(filter.query(), filter.tagIdsParam(),
+                filter.requiredTagMatches(), snippets, limit + 1, pageable.getOffset());
+        boolean hasNext = rows.size() > limit;
+        List<RankedPostRow> top = hasNext ? rows.subList(0, limit) : rows;
+
+        Map<Long, PostSummaryRow> posts = postRepo
+                .findSummariesByIdIn(top.stream().map(RankedPostRow::getId).toList()).stream()
+                .collect(Collectors.toMap(PostSummaryRow::getId, Function.identity()));
+        List<PostDto> content = new ArrayList<>(top.size());
+        for (RankedPostRow row : top) {
+            PostSummaryRow post = posts.get(row.getId());
+            if (post != null) {
+                PostDto dto = new PostDto(post);
+                dto.setSnippet(SnippetBuilder.markup(row.getSnippet()));
+                content.add(dto);
+            }
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public TotalEstimate estimateTotal(PostSearchFilter filter) {
+        return countEstimator.estimate(filter);
+    }
+
+    @Override
+    public void index(Post post) {
+    }
+
+    @Override
+    public void remove(Long postId) {
+    }
+
+    @Override
+    public void adjustReplies(Long postId, long delta) {
+    }
+}
@@ -0,0 +1,360 @@
+package com.echovenancio.ministack.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.models.Suggestion;
+import com.echovenancio.ministack.models.SuggestionType;
+import com.echovenancio.ministack.repository.PostReplyCount;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.PostTitleRow;
+import com.echovenancio.ministack.repository.ReplyRepository;
+import com.echovenancio.ministack.repository.TagRepository;
+import com.echovenancio.ministack.repository.TagUsageRow;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Typeahead over tag names and post titles, held in memory so keystrokes never
+ * reach the database. Tags are ranked by how many posts use them, titles by
+ * their reply count.
+ *
+ * Most entries live in an immutable snapshot sorted by key, where a prefix is one
+ * contiguous range found by binary search. Short ranges are scanned per request;
+ * for prefixes matching more than {@link #SCAN_LIMIT} entries the best
+ * suggestions are computed when the snapshot is built, so a lookup never walks
+ * more than a bounded number of entries. Changes since the snapshot go to a small
+ * sorted overlay, folded into a new snapshot once it grows past
+ * {@link #MERGE_THRESHOLD}.
+ */
+@Service
+public class SuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    public static final int MAX_LIMIT = 20;
+
+    static final int SCAN_LIMIT = 1024;
+
+    static final int MERGE_THRESHOLD = 4096;
+
+    // Kept per popular prefix; the slack covers snapshot entries hidden by later changes.
+    private static final int CANDIDATES = 2 * MAX_LIMIT;
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private record Entry(String sortKey, String key, String identity, Suggestion suggestion) {
+
+        static Entry of(SuggestionType type, Long id, String text, long popularity) {
+            String key = normalize(text);
+            String identity = type + ":" + id;
+            return new Entry(key + '\0' + identity, key, identity, new Suggestion(text, type, id, popularity));
+        }
+    }
+
+    // Most popular first, then alphabetical.
+    private static final Comparator<Entry> BEST_FIRST = Comparator
+            .comparingLong((Entry e) -> e.suggestion().popularity()).reversed()
+            .thenComparing(Entry::sortKey);
+
+    private static final class Snapshot {
+
+        private final Entry[] entries;
+        private final String[] keys;
+        private final Map<String, List<Entry>> popularPrefixes = new HashMap<>();
+
+        /** {@code sorted} must be ordered by sort key. */
+        private Snapshot(List<Entry> sorted) {
+            this.entries = sorted.toArray(new Entry[0]);
+            this.keys = new String[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                keys[i] = entries[i].key();
+            }
+            collectPopular(0, entries.length, 0);
+        }
+
+        static Snapshot build(List<Entry> entries) {
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparing(Entry::sortKey));
+            return new Snapshot(sorted);
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        List<Entry> best(String prefix) {
+            List<Entry> cached = popularPrefixes.get(prefix);
+            if (cached != null) {
+                return cached;
+            }
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            return top(Arrays.asList(entries).subList(from, to), CANDIDATES);
+        }
+
+        /*
+         * Every prefix with more than SCAN_LIMIT matches is an extension, one
+         * character at a time, of another such prefix, so descending only into
+         * oversized ranges finds all of them.
+         */
+        private void collectPopular(int from, int to, int depth) {
+            if (to - from <= SCAN_LIMIT) {
+                return;
+            }
+            popularPrefixes.put(keys[from].substring(0, depth),
+                    top(Arrays.asList(entries).subList(from, to), CANDIDATES));
+            int i = from;
+            // A key equal to the prefix itself sorts first and has no next character.
+            while (i < to && keys[i].length() == depth) {
+                i++;
+            }
+            while (i < to) {
+                char c = keys[i].charAt(depth);
+                int j = i + 1;
+                while (j < to && keys[j].charAt(depth) == c) {
+                    j++;
+                }
+                collectPopular(i, j, depth + 1);
+                i = j;
+            }
+        }
+
+        Entry find(String key, String identity) {
+            for (int i = lowerBound(key); i < keys.length && keys[i].equals(key); i++) {
+                if (entries[i].identity().equals(identity)) {
+                    return entries[i];
+                }
+            }
+            return null;
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    private record State(Snapshot snapshot, ConcurrentSkipListMap<String, Entry> overlay,
+            Map<String, Entry> overlayByIdentity, Set<String> shadowed) {
+
+        static State of(Snapshot snapshot) {
+            return new State(snapshot, new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(),
+                    ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private final TagRepository tagRepo;
+    private final PostRepository postRepo;
+    private final ReplyRepository replyRepo;
+
+    // Readers take one consistent view; writers synchronize on this index.
+    private volatile State state = State.of(Snapshot.build(List.of()));
+    private final Map<Long, Long> tagPosts = new HashMap<>();
+
+    public SuggestionIndex(TagRepository tagRepo, PostRepository postRepo, ReplyRepository replyRepo) {
+        this.tagRepo = tagRepo;
+        this.postRepo = postRepo;
+        this.replyRepo = replyRepo;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, Long> tagCounts = new HashMap<>();
+        for (TagUsageRow row : tagRepo.findTagUsage()) {
+            tagCounts.put(row.getId(), row.getPosts());
+            entries.add(Entry.of(SuggestionType.TAG, row.getId(), row.getName(), row.getPosts()));
+        }
+        Map<Long, Long> replies = new HashMap<>();
+        for (PostReplyCount count : replyRepo.countRepliesByPost()) {
+            replies.put(count.getPostId(), count.getReplies());
+        }
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<PostTitleRow> rows = postRepo.findTitlesAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (PostTitleRow row : rows) {
+                entries.add(Entry.of(SuggestionType.POST, row.getId(), row.getTitle(),
+                        replies.getOrDefault(row.getId(), 0L)));
+            }
+            lastId = rows.get(rows.size() - 1).getId();
+        }
+        Snapshot snapshot = Snapshot.build(entries);
+        synchronized (this) {
+            tagPosts.clear();
+            tagPosts.putAll(tagCounts);
+            state = State.of(snapshot);
+        }
+        logger.info("Indexed {} suggestions in {} ms", snapshot.size(), System.currentTimeMillis() - start);
+    }
+
+    /** The most popular tags and titles starting with {@code prefix}, ignoring case. */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int k = Math.min(limit, MAX_LIMIT);
+        if (key.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        State current = state;
+        List<Entry> candidates = new ArrayList<>();
+        for (Entry entry : current.snapshot().best(key)) {
+            if (!current.shadowed().contains(entry.identity())) {
+                candidates.add(entry);
+            }
+        }
+        candidates.addAll(top(current.overlay().subMap(key, key + Character.MAX_VALUE).values(), k));
+        candidates.sort(BEST_FIRST);
+        List<Suggestion> result = new ArrayList<>(k);
+        for (Iterator<Entry> it = candidates.iterator(); it.hasNext() && result.size() < k;) {
+            result.add(it.next().suggestion());
+        }
+        return result;
+    }
+
+    /** Called after a post has been created or updated. */
+    public void addPost(Post post) {
+        // Read the post before taking the lock: its tags may still have to be loaded.
+        Entry entry = Entry.of(SuggestionType.POST, post.getId(), post.getTitle(), post.getReplyCount());
+        List<Tag> tags = post.getTags() == null ? List.of() : List.copyOf(post.getTags());
+        synchronized (this) {
+            put(entry);
+            for (Tag tag : tags) {
+                long count = tagPosts.merge(tag.getId(), 1L, Long::sum);
+                put(Entry.of(SuggestionType.TAG, tag.getId(), tag.getName(), count));
+            }
+            mergeIfFull();
+        }
+    }
+
+    /** Called before a post is updated or deleted, while it still has its old title and tags. */
+    public void removePost(Post post) {
+        String identity = SuggestionType.POST + ":" + post.getId();
+        List<Tag> tags = post.getTags() == null ? List.of() : List.copyOf(post.getTags());
+        synchronized (this) {
+            delete(identity);
+            for (Tag tag : tags) {
+                long count = tagPosts.merge(tag.getId(), -1L, (a, b) -> Math.max(0, a + b));
+                put(Entry.of(SuggestionType.TAG, tag.getId(), tag.getName(), count));
+            }
+            mergeIfFull();
+        }
+    }
+
+    /**
+     * Called after a reply to the post has been created or deleted, so the title
+     * moves with its reply count. A post not in the index is left out.
+     */
+    public synchronized void adjustReplies(Long postId, String title, long delta) {
+        String identity = SuggestionType.POST + ":" + postId;
+        State current = state;
+        Entry entry = current.overlayByIdentity().get(identity);
+        if (entry == null && !current.shadowed().contains(identity)) {
+            entry = current.snapshot().find(normalize(title), identity);
+        }
+        if (entry == null) {
+            return;
+        }
+        long replies = Math.max(0, entry.suggestion().popularity() + delta);
+        put(Entry.of(SuggestionType.POST, postId, entry.suggestion().text(), replies));
+        mergeIfFull();
+    }
+
+    private void put(Entry entry) {
+        State current = state;
+        delete(entry.identity());
+        if (entry.key().isEmpty()) {
+            return;
+        }
+        current.overlay().put(entry.sortKey(), entry);
+        current.overlayByIdentity().put(entry.identity(), entry);
+    }
+
+    private void delete(String identity) {
+        State current = state;
+        // Hide the snapshot copy first: a reader may briefly miss the entry, never see a stale one.
+        current.shadowed().add(identity);
+        Entry previous = current.overlayByIdentity().remove(identity);
+        if (previous != null) {
+            current.overlay().remove(previous.sortKey());
+        }
+    }
+
+    /*
+     * Both inputs are already in sort-key order, so the new snapshot is a linear
+     * merge rather than a full sort.
+     */
+    private void mergeIfFull() {
+        State current = state;
+        if (current.shadowed().size() <= MERGE_THRESHOLD) {
+            return;
+        }
+        Entry[] base = current.snapshot().entries;
+        Iterator<Entry> changes = current.overlay().values().iterator();
+        List<Entry> merged = new ArrayList<>(base.length + current.overlay().size());
+        Entry change = changes.hasNext() ? changes.next() : null;
+        for (Entry entry : base) {
+            if (current.shadowed().contains(entry.identity())) {
+                continue;
+            }
+            while (change != null && change.sortKey().compareTo(entry.sortKey()) < 0) {
+                merged.add(change);
+                change = changes.hasNext() ? changes.next() : null;
+            }
+            merged.add(entry);
+        }
+        while (change != null) {
+            merged.add(change);
+            change = changes.hasNext() ? changes.next() : null;
+        }
+        state = State.of(new Snapshot(merged));
+    }
+
+    private static List<Entry> top(Iterable<Entry> entries, int k) {
+        PriorityQueue<Entry> heap = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+        for (Entry entry : entries) {
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (BEST_FIRST.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> best = new ArrayList<>(heap);
+        best.sort(BEST_FIRST);
+        return best;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.stripLeading().toLowerCase(Locale.ROOT);
+    }
+}
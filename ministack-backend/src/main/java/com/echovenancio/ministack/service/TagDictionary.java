@@ -0,0 +1,102 @@
+package com.echovenancio.ministack.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.repository.TagRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tag names resolved from memory. Reads go to an immutable name-to-tag snapshot;
+ * names missing from it are looked up in one batched query and published in a
+ * new snapshot. The whole snapshot is also reloaded periodically, to pick up
+ * tags renamed or removed behind the application's back.
+ */
+@Service
+public class TagDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagDictionary.class);
+
+    private record TagRef(Long id, String name) {
+
+        Tag toTag() {
+            return new Tag(id, name);
+        }
+    }
+
+    private final TagRepository tagRepo;
+
+    private volatile Map<String, TagRef> byName = Map.of();
+
+    public TagDictionary(TagRepository tagRepo) {
+        this.tagRepo = tagRepo;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${ministack.tags.refresh-interval-ms:600000}",
+            fixedDelayString = "${ministack.tags.refresh-interval-ms:600000}")
+    public void refresh() {
+        Map<String, TagRef> loaded = new HashMap<>();
+        for (Tag tag : tagRepo.findAll()) {
+            loaded.put(tag.getName(), new TagRef(tag.getId(), tag.getName()));
+        }
+        synchronized (this) {
+            byName = Map.copyOf(loaded);
+        }
+        logger.debug("Loaded {} tags", loaded.size());
+    }
+
+    /**
+     * Resolves each name to a detached tag; names that don't exist are left out
+     * of the result. Costs no query unless some name was never seen before.
+     */
+    public Map<String, Tag> resolve(Collection<String> names) {
+        Map<String, TagRef> snapshot = byName;
+        Map<String, Tag> found = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String name : names) {
+            TagRef ref = snapshot.get(name);
+            if (ref != null) {
+                found.put(name, ref.toTag());
+            } else {
+                misses.add(name);
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<TagRef> loaded = new ArrayList<>();
+            for (Tag tag : tagRepo.findByNameIn(misses)) {
+                if (misses.contains(tag.getName())) {
+                    loaded.add(new TagRef(tag.getId(), tag.getName()));
+                }
+            }
+            publish(loaded);
+            for (TagRef ref : loaded) {
+                found.put(ref.name(), ref.toTag());
+            }
+        }
+        return found;
+    }
+
+    /** Copy-on-write: readers holding the old snapshot keep a consistent view. */
+    private synchronized void publish(List<TagRef> refs) {
+        if (refs.isEmpty()) {
+            return;
+        }
+        Map<String, TagRef> next = new HashMap<>(byName);
+        for (TagRef ref : refs) {
+            next.put(ref.name(), ref);
+        }
+        byName = Map.copyOf(next);
+    }
+}
@@ -0,0 +1,78 @@
+package com.echovenancio.ministack.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.repository.TagRepository;
+
+/**
+ * Keeps {@code tag.post_count} in step with post writes. Adjustments join the
+ * caller's transaction, so a counter only moves if the post change commits;
+ * {@link #reconcile} repairs any drift left by writes made outside the app.
+ */
+@Service
+public class TagPostCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagPostCounter.class);
+
+    private final TagRepository tagRepo;
+
+    public TagPostCounter(TagRepository tagRepo) {
+        this.tagRepo = tagRepo;
+    }
+
+    @Transactional
+    public void postCreated(Collection<Tag> tags) {
+        adjust(ids(tags), 1);
+    }
+
+    /** Only the tags that were actually added or removed are touched. */
+    @Transactional
+    public void postRetagged(Collection<Tag> before, Collection<Tag> after) {
+        Set<Long> removed = ids(before);
+        Set<Long> added = ids(after);
+        Set<Long> kept = new HashSet<>(removed);
+        kept.retainAll(added);
+        removed.removeAll(kept);
+        added.removeAll(kept);
+        adjust(removed, -1);
+        adjust(added, 1);
+    }
+
+    @Transactional
+    public void postDeleted(Collection<Tag> tags) {
+        adjust(ids(tags), -1);
+    }
+
+    @Scheduled(initialDelayString = "${ministack.tags.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${ministack.tags.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        int repaired = tagRepo.reconcilePostCounts();
+        if (repaired > 0) {
+            logger.warn("Repaired {} drifted tag post counts", repaired);
+        }
+    }
+
+    private void adjust(Set<Long> tagIds, long delta) {
+        if (!tagIds.isEmpty()) {
+            tagRepo.adjustPostCount(tagIds, delta);
+        }
+    }
+
+    private static Set<Long> ids(Collection<Tag> tags) {
+        if (tags == null) {
+            return new HashSet<>();
+        }
+        return tags.stream().map(Tag::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,80 @@
+package com.echovenancio.ministack.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.ReplyRepository;
+
+/**
+ * Physically removes post and reply tombstones once they are older than the
+ * retention period. Runs off-peak in small batches, each its own short
+ * transaction, so it never holds locks on many rows or competes with daytime
+ * traffic; whatever a run leaves behind is picked up by the next one.
+ *
+ * Replies go first: a reply tombstone is removed only once it has no children,
+ * and a post tombstone only once none of its replies are left.
+ */
+@Service
+public class TombstoneCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TombstoneCompactor.class);
+
+    private final PostRepository postRepo;
+    private final ReplyRepository replyRepo;
+    private final TransactionTemplate tx;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public TombstoneCompactor(PostRepository postRepo, ReplyRepository replyRepo,
+            PlatformTransactionManager transactionManager,
+            @Value("${ministack.compaction.retention:7d}") Duration retention,
+            @Value("${ministack.compaction.batch-size:500}") int batchSize,
+            @Value("${ministack.compaction.max-batches:200}") int maxBatches) {
+        this.postRepo = postRepo;
+        this.replyRepo = replyRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${ministack.compaction.cron:0 */10 2-5 * * *}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long start = System.currentTimeMillis();
+        int replies = 0;
+        int posts = 0;
+        int batches = 0;
+        // A batch of replies can free their parents, so keep going until one comes back empty.
+        while (batches < maxBatches) {
+            batches++;
+            int removed = tx.execute(status -> replyRepo.purgeTombstones(cutoff, batchSize));
+            replies += removed;
+            if (removed == 0) {
+                break;
+            }
+        }
+        while (batches < maxBatches) {
+            batches++;
+            int removed = tx.execute(status -> postRepo.purgeTombstones(cutoff, batchSize));
+            posts += removed;
+            if (removed < batchSize) {
+                break;
+            }
+        }
+        if (replies + posts > 0) {
+            logger.info("Purged {} reply and {} post tombstones in {} batches, {} ms", replies, posts, batches,
+                    System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.echovenancio.ministack.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (created_at, id)}, exchanged with
+ * clients as an opaque url-safe token.
+ */
+public record Cursor(LocalDateTime createdAt, long id) {
+
+    // Sorts after every real row, so the first page uses the same query as the rest.
+    private static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    // Sorts before every real row, for listings read oldest first.
+    private static final Cursor ORIGIN = new Cursor(LocalDateTime.of(1, 1, 1, 0, 0), Long.MIN_VALUE);
+
+    public static Cursor start() {
+        return START;
+    }
+
+    public static Cursor origin() {
+        return ORIGIN;
+    }
+
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
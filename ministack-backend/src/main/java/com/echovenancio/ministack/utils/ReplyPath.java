@@ -0,0 +1,56 @@
+package com.echovenancio.ministack.utils;
+
+import com.echovenancio.ministack.entity.Reply;
+
+/**
+ * Helpers for the materialized path stored on each reply: the ids of its
+ * ancestors, root first, each zero-padded to {@link #SEGMENT_LENGTH} characters
+ * including a trailing {@code '/'}. Top-level replies have an empty path.
+ *
+ * Because segments have a fixed width, a reply's depth follows from the path
+ * length, and all of its descendants fall in the range
+ * {@code [subtree(r), upperBound(subtree(r)))} of the bytewise-ordered column.
+ */
+public final class ReplyPath {
+
+    public static final int SEGMENT_LENGTH = 20;
+
+    private ReplyPath() {
+    }
+
+    public static String segment(long id) {
+        return String.format("%019d/", id);
+    }
+
+    /** The path of a new reply under {@code parent}, or the empty path for a top-level reply. */
+    public static String childOf(Reply parent) {
+        return parent == null ? "" : subtree(parent);
+    }
+
+    /** The prefix shared by every descendant of {@code reply}. */
+    public static String subtree(Reply reply) {
+        return reply.getPath() + segment(reply.getId());
+    }
+
+    /** The smallest path greater than every path starting with {@code prefix}. */
+    public static String upperBound(String prefix) {
+        // Segments end in '/', and '0' is the next character after it.
+        return prefix.substring(0, prefix.length() - 1) + '0';
+    }
+
+    /** Top-level replies are at depth 1. */
+    public static int depth(String path) {
+        return path.length() / SEGMENT_LENGTH + 1;
+    }
+
+    /** Longest path within the first {@code levels} levels under {@code prefix}, a subtree prefix. */
+    public static int maxLength(String prefix, int levels) {
+        return (int) Math.min(Integer.MAX_VALUE, prefix.length() + (levels - 1L) * SEGMENT_LENGTH);
+    }
+
+    /** Id of the top-level reply of the thread {@code reply} belongs to. */
+    public static long rootId(Reply reply) {
+        String path = reply.getPath();
+        return path.isEmpty() ? reply.getId() : Long.parseLong(path.substring(0, SEGMENT_LENGTH - 1));
+    }
+}
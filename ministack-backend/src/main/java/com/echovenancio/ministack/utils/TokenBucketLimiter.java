@@ -0,0 +1,110 @@
+package com.echovenancio.ministack.utils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per key, refilled lazily on access rather than by a timer.
+ * Keys are spread over a fixed number of stripes, each with its own lock and
+ * map, so unrelated clients rarely contend. A key seen before costs a map
+ * lookup and a little arithmetic, and allocates nothing.
+ */
+public class TokenBucketLimiter {
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe {
+        final HashMap<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private final int capacity;
+    private final double nanosPerToken;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes;
+
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int stripes) {
+        this(capacity, refillPerMinute, stripes, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int stripes, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("capacity and refillPerMinute must be positive");
+        }
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = 60_000_000_000d / refillPerMinute;
+        this.nanoClock = nanoClock;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 when one was available, otherwise
+     * how many nanoseconds until the next one is.
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                stripe.buckets.put(key, new Bucket(capacity - 1, now));
+                return 0;
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) / nanosPerToken);
+            bucket.updatedAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) * nanosPerToken);
+        }
+    }
+
+    /** Drops buckets that have refilled completely: they behave exactly like a key never seen. */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> buckets = stripe.buckets.values().iterator();
+                while (buckets.hasNext()) {
+                    Bucket bucket = buckets.next();
+                    if (bucket.tokens + (now - bucket.updatedAt) / nanosPerToken >= capacity) {
+                        buckets.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+}
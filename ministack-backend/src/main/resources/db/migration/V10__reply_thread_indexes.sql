@@ -0,0 +1,3 @@
+-- Backs the recursive thread query: top-level replies by post, then children by parent.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS reply_post_id_parent_reply_id_idx ON reply (post_id, parent_reply_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS reply_parent_reply_id_idx ON reply (parent_reply_id);
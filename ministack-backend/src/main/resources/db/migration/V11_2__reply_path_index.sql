@@ -0,0 +1,2 @@
+-- Backs subtree reads: a reply's descendants are one range of this index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS reply_path_idx ON reply (path);
@@ -0,0 +1,6 @@
+-- Materialized ancestor path per reply: one fixed-width segment per ancestor id,
+-- root first, so a reply's descendants share a prefix and sit in one index range.
+-- The "C" collation makes comparisons bytewise, which the range bounds rely on.
+-- A constant default adds the column without rewriting the table: every reply
+-- starts out as a root, and V11.1 fills in the paths of nested ones.
+ALTER TABLE reply ADD COLUMN IF NOT EXISTS path text COLLATE "C" NOT NULL DEFAULT '';
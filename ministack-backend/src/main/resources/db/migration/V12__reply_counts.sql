@@ -0,0 +1,5 @@
+-- Denormalized reply counters, kept current by the reply write paths and
+-- repaired by the periodic reconciliation. A constant default adds the columns
+-- without rewriting the tables; V12.1 counts the existing replies.
+ALTER TABLE post ADD COLUMN IF NOT EXISTS reply_count bigint NOT NULL DEFAULT 0;
+ALTER TABLE reply ADD COLUMN IF NOT EXISTS child_count bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,20 @@
+-- The compactor's work queues: small, since they only hold tombstones.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_deleted_at_idx ON post (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS reply_deleted_at_idx ON reply (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Read-path indexes cover live rows only. Each is built beside the one it
+-- replaces, which is dropped once the new one is ready; V13.2 renames them back.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_search_vector_live_idx ON post USING GIN (search_vector)
+    WHERE deleted_at IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS post_search_vector_idx;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_created_at_id_live_idx ON post (created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS post_created_at_id_idx;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS reply_path_live_idx ON reply (path) WHERE deleted_at IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS reply_path_idx;
+
+-- reply (post_id, parent_reply_id) and reply (parent_reply_id) stay whole: the
+-- thread walk keeps tombstones that still have replies, and the compactor checks
+-- for remaining children through them.
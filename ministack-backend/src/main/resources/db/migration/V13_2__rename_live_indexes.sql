@@ -0,0 +1,5 @@
+-- Back under their existing names. Renames only touch the catalog, so they run
+-- in a transaction of their own, apart from the concurrent builds in V13.1.
+ALTER INDEX IF EXISTS post_search_vector_live_idx RENAME TO post_search_vector_idx;
+ALTER INDEX IF EXISTS post_created_at_id_live_idx RENAME TO post_created_at_id_idx;
+ALTER INDEX IF EXISTS reply_path_live_idx RENAME TO reply_path_idx;
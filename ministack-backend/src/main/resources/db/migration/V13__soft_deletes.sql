@@ -0,0 +1,5 @@
+-- Deleted posts and replies become tombstones; TombstoneCompactor removes them
+-- for good once they are old enough and nothing references them. Adding a
+-- nullable column only touches the catalog; the indexes follow in V13.1.
+ALTER TABLE post ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+ALTER TABLE reply ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
@@ -0,0 +1,5 @@
+-- Backs keyset pagination of reply listings, oldest first under a post or a parent.
+-- Its leading columns serve the thread walk as well, so the narrower index goes.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS reply_post_id_parent_reply_id_created_at_id_idx
+    ON reply (post_id, parent_reply_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS reply_post_id_parent_reply_id_idx;
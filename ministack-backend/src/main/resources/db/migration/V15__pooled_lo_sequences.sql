@@ -0,0 +1,6 @@
+-- Entity ids now come from pooled-lo blocks: nextval v hands out [v, v + increment),
+-- with the increment equal to each entity's ID_ALLOCATION_SIZE. The old pooled
+-- optimizer only ever used ids up to the current value, so every later block is
+-- unused. tag_seq and users_seq keep their increment of 50.
+ALTER SEQUENCE post_seq INCREMENT BY 100;
+ALTER SEQUENCE reply_seq INCREMENT BY 200;
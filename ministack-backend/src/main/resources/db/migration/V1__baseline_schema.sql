@@ -0,0 +1,63 @@
+-- Schema as generated by Hibernate before migrations were introduced.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE SEQUENCE post_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE reply_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tag_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id bigint NOT NULL,
+    email varchar(255) NOT NULL,
+    password varchar(255),
+    username varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT users_email_key UNIQUE (email)
+);
+
+CREATE TABLE tag (
+    id bigint NOT NULL,
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT tag_name_key UNIQUE (name)
+);
+
+CREATE TABLE post (
+    id bigint NOT NULL,
+    body varchar(255),
+    created_at timestamp(6),
+    title varchar(255),
+    user_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT post_user_id_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE SET NULL
+);
+
+CREATE TABLE post_tags (
+    post_id bigint NOT NULL,
+    tag_id bigint NOT NULL,
+    PRIMARY KEY (post_id, tag_id),
+    CONSTRAINT post_tags_post_id_fkey FOREIGN KEY (post_id) REFERENCES post (id),
+    CONSTRAINT post_tags_tag_id_fkey FOREIGN KEY (tag_id) REFERENCES tag (id)
+);
+
+CREATE TABLE reply (
+    id bigint NOT NULL,
+    body varchar(255),
+    created_at timestamp(6),
+    parent_reply_id bigint,
+    post_id bigint,
+    user_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT reply_parent_reply_id_fkey FOREIGN KEY (parent_reply_id) REFERENCES reply (id) ON DELETE SET NULL,
+    CONSTRAINT reply_post_id_fkey FOREIGN KEY (post_id) REFERENCES post (id) ON DELETE SET NULL,
+    CONSTRAINT reply_user_id_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE SET NULL
+);
+
+CREATE TABLE users_posts (
+    users_id bigint NOT NULL,
+    posts_id bigint NOT NULL,
+    PRIMARY KEY (users_id, posts_id),
+    CONSTRAINT users_posts_posts_id_key UNIQUE (posts_id),
+    CONSTRAINT users_posts_users_id_fkey FOREIGN KEY (users_id) REFERENCES users (id),
+    CONSTRAINT users_posts_posts_id_fkey FOREIGN KEY (posts_id) REFERENCES post (id)
+);
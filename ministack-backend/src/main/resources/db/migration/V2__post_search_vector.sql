@@ -0,0 +1,24 @@
+-- Persisted full-text vector for post search. The vector is computed by a
+-- single function so the trigger, the backfill and the search query all
+-- agree on the text-search configuration.
+
+ALTER TABLE post ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION post_search_vector(title text, body text) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE AS $$
+        SELECT to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(body, ''))
+    $$;
+
+CREATE OR REPLACE FUNCTION post_search_vector_trigger() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+        BEGIN
+            NEW.search_vector := post_search_vector(NEW.title, NEW.body);
+            RETURN NEW;
+        END
+    $$;
+
+DROP TRIGGER IF EXISTS post_search_vector_update ON post;
+
+CREATE TRIGGER post_search_vector_update
+    BEFORE INSERT OR UPDATE OF title, body ON post
+    FOR EACH ROW EXECUTE FUNCTION post_search_vector_trigger();
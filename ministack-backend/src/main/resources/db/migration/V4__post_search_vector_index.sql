@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_search_vector_idx ON post USING GIN (search_vector);
@@ -0,0 +1,2 @@
+-- Backs keyset pagination of the post listing, newest first.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_created_at_id_idx ON post (created_at DESC, id DESC);
@@ -0,0 +1,2 @@
+-- Lets tag filters find a tag's posts without scanning post_tags by post_id.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS post_tags_tag_id_post_id_idx ON post_tags (tag_id, post_id);
@@ -0,0 +1,8 @@
+-- Weight title words above body words so ts_rank can order by relevance.
+-- Existing vectors are recomputed in batches by the next migration.
+
+CREATE OR REPLACE FUNCTION post_search_vector(title text, body text) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE AS $$
+        SELECT setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+            || setweight(to_tsvector('simple', coalesce(body, '')), 'B')
+    $$;
@@ -0,0 +1,15 @@
+-- Denormalized usage count per tag, kept current by the post write paths and
+-- repaired by the periodic reconciliation.
+ALTER TABLE tag ADD COLUMN IF NOT EXISTS post_count bigint NOT NULL DEFAULT 0;
+
+UPDATE tag t
+SET post_count = c.posts
+FROM (
+    SELECT pt.tag_id, count(*) AS posts
+    FROM post_tags pt
+    GROUP BY pt.tag_id
+) c
+WHERE c.tag_id = t.id;
+
+-- Serves GET /api/tags sorted by usage without sorting the whole table.
+CREATE INDEX IF NOT EXISTS tag_post_count_name_idx ON tag (post_count DESC, name);
@@ -25,6 +25,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.echovenancio.ministack.security.JWTFilter;
+import com.echovenancio.ministack.security.RateLimitFilter;
 import com.echovenancio.ministack.service.MyUserDetailsService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -34,10 +35,12 @@ import jakarta.servlet.http.HttpServletResponse;
 public class TestSecurityConfig {
 
     private final JWTFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final MyUserDetailsService uds;
 
-    public TestSecurityConfig(JWTFilter jwtFilter, MyUserDetailsService uds) {
+    public TestSecurityConfig(JWTFilter jwtFilter, RateLimitFilter rateLimitFilter, MyUserDetailsService uds) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.uds = uds;
     }
 
@@ -62,6 +65,8 @@ public class TestSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/suggest").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/tags").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers("/error").permitAll()
@@ -81,6 +86,7 @@ public class TestSecurityConfig {
                 .userDetailsService(uds);
 
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JWTFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,21 @@
+package com.echovenancio.ministack.config;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import org.springframework.security.test.context.support.WithSecurityContext;
+
+/**
+ * Runs the test as a token-authenticated user, with the same principal
+ * {@code JWTFilter} puts in the security context.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@WithSecurityContext(factory = WithAuthenticatedUserSecurityContextFactory.class)
+public @interface WithAuthenticatedUser {
+
+    long id() default 1L;
+
+    String username() default "testuser";
+
+    String email() default "user@example.com";
+}
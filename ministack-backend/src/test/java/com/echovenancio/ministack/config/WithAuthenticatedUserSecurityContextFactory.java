@@ -0,0 +1,20 @@
+package com.echovenancio.ministack.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+
+import com.echovenancio.ministack.models.AuthenticatedUser;
+
+public class WithAuthenticatedUserSecurityContextFactory implements WithSecurityContextFactory<WithAuthenticatedUser> {
+
+    @Override
+    public SecurityContext createSecurityContext(WithAuthenticatedUser annotation) {
+        AuthenticatedUser user = AuthenticatedUser.withUserRole(annotation.id(), annotation.username(),
+                annotation.email());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
+        return context;
+    }
+}
@@ -2,14 +2,17 @@ package com.echovenancio.ministack.controllers;
 
 import com.echovenancio.ministack.config.TestSecurityConfig;
 import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
 import com.echovenancio.ministack.models.LoginCredentials;
 import com.echovenancio.ministack.models.RegisterRequest;
 import com.echovenancio.ministack.repository.UserRepository;
 import com.echovenancio.ministack.security.JWTFilter; 
 import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.security.PasswordHashingPool;
 import com.echovenancio.ministack.service.MyUserDetailsService;
 import com.fasterxml.jackson.databind.ObjectMapper; 
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -25,13 +28,26 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf; 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = AuthController.class)
@@ -60,6 +76,23 @@ class AuthControllerTest {
     @MockitoBean
     private PasswordEncoder passwordEncoder;
 
+    @MockitoBean
+    private PasswordHashingPool hashingPool;
+
+    @BeforeEach
+    void runHashingInline() {
+        when(hashingPool.submit(any())).thenAnswer(invocation -> CompletableFuture.supplyAsync(
+                invocation.<Supplier<?>>getArgument(0), Runnable::run));
+    }
+
+    /** The handlers answer asynchronously once hashing is done; this waits for and dispatches the result. */
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
     @Test
     void testRegisterSuccess() throws Exception {
         RegisterRequest registerRequest = new RegisterRequest(
@@ -74,9 +107,10 @@ class AuthControllerTest {
 
         when(userRepo.save(any(User.class))).thenReturn(savedUser);
 
-        when(jwtUtil.generateToken("test@example.com")).thenReturn("mocked-jwt-token-for-test@example.com");
+        when(jwtUtil.generateToken(AuthenticatedUser.withUserRole(1L, "testuser", "test@example.com")))
+                .thenReturn("mocked-jwt-token-for-test@example.com");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest))
                 .with(csrf())) 
@@ -89,7 +123,7 @@ class AuthControllerTest {
         RegisterRequest registerRequest = new RegisterRequest(
                 "test@example.com", "password123", "mismatched", "testuser");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest))
                 .with(csrf()))
@@ -106,7 +140,7 @@ class AuthControllerTest {
 
         when(userRepo.save(any(User.class))).thenThrow(new RuntimeException("Database error"));
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest))
                 .with(csrf()))
@@ -124,9 +158,11 @@ class AuthControllerTest {
         when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
 
-        when(jwtUtil.generateToken("login@example.com")).thenReturn("mocked-jwt-token-for-login@example.com");
+        AuthenticatedUser principal = AuthenticatedUser.withUserRole(2L, "login", "login@example.com");
+        when(userDetailsService.loadPrincipal("login@example.com")).thenReturn(principal);
+        when(jwtUtil.generateToken(principal)).thenReturn("mocked-jwt-token-for-login@example.com");
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginCredentials)))
@@ -142,7 +178,7 @@ class AuthControllerTest {
         when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenThrow(new BadCredentialsException("Invalid credentials"));
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginCredentials)))
@@ -160,13 +196,29 @@ class AuthControllerTest {
         when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
 
-        when(jwtUtil.generateToken("login@example.com")).thenThrow(new RuntimeException("Token generation error"));
+        AuthenticatedUser principal = AuthenticatedUser.withUserRole(2L, "login", "login@example.com");
+        when(userDetailsService.loadPrincipal("login@example.com")).thenReturn(principal);
+        when(jwtUtil.generateToken(principal)).thenThrow(new RuntimeException("Token generation error"));
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginCredentials)))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.error").value("Internal server error"));
     }
+
+    @Test
+    void testLoginRejectedWhenHashingIsSaturated() throws Exception {
+        doThrow(new RejectedExecutionException("queue full")).when(hashingPool).submit(any());
+
+        performAsync(post("/api/auth/login")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginCredentials("login@example.com", "password123"))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(authManager, never()).authenticate(any());
+    }
 }
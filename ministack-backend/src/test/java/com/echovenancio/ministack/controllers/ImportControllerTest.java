@@ -0,0 +1,178 @@
+package com.echovenancio.ministack.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.echovenancio.ministack.config.TestSecurityConfig;
+import com.echovenancio.ministack.models.BulkImportRequest;
+import com.echovenancio.ministack.models.ErrorResponse;
+import com.echovenancio.ministack.models.ImportError;
+import com.echovenancio.ministack.models.ImportPost;
+import com.echovenancio.ministack.models.ImportReply;
+import com.echovenancio.ministack.models.ImportResult;
+import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.service.BulkImporter;
+import com.echovenancio.ministack.service.MyUserDetailsService;
+import com.echovenancio.ministack.utils.Result;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@WebMvcTest(controllers = ImportController.class)
+@AutoConfigureMockMvc(addFilters = true)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private MyUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private BulkImporter importer;
+
+    private static ImportPost postWithReplies(int replies) {
+        List<ImportReply> thread = new ArrayList<>();
+        for (int i = 0; i < replies; i++) {
+            thread.add(new ImportReply("Imported reply " + i, null, null, List.of()));
+        }
+        return new ImportPost("Imported post", "Imported post body", null, List.of("java"), null, thread);
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void importPosts_ReturnsCountsAndPerItemErrors() throws Exception {
+        when(importer.importPosts(anyList(), eq("user@example.com"))).thenReturn(Result.success(
+                new ImportResult(1, 2, List.of(new ImportError(1, "Tag not found: cobol")))));
+        BulkImportRequest request = new BulkImportRequest(List.of(postWithReplies(2), postWithReplies(0)));
+
+        mockMvc.perform(post("/api/import/posts")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.postsImported").value(1))
+                .andExpect(jsonPath("$.value.repliesImported").value(2))
+                .andExpect(jsonPath("$.value.errors[0].index").value(1))
+                .andExpect(jsonPath("$.value.errors[0].message").value("Tag not found: cobol"));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void importPosts_Error_EmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/import/posts")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkImportRequest(Collections.emptyList()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("A batch must hold between 1 and 1000 posts"));
+
+        verify(importer, never()).importPosts(anyList(), anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void importPosts_Error_TooManyReplies() throws Exception {
+        BulkImportRequest request = new BulkImportRequest(List.of(postWithReplies(ImportController.MAX_REPLIES + 1)));
+
+        mockMvc.perform(post("/api/import/posts")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("A batch must hold at most 50000 replies"));
+
+        verify(importer, never()).importPosts(anyList(), anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com")
+    void importPosts_Error_ForgedAuthor() throws Exception {
+        ImportPost forged = new ImportPost("Imported post", "Imported post body", "victim@example.com",
+                List.of("java"), null, List.of());
+        ImportPost forgedReply = new ImportPost("Imported post", "Imported post body", "user@example.com",
+                List.of("java"), null, List.of(new ImportReply("Imported reply", "victim@example.com", null,
+                        List.of())));
+
+        for (ImportPost post : List.of(forged, forgedReply)) {
+            mockMvc.perform(post("/api/import/posts")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new BulkImportRequest(List.of(post)))))
+                    .andExpect(status().isForbidden())
+                    .andExpect(jsonPath("$.error.message")
+                            .value("You do not have permission to import content as other users"));
+        }
+
+        verify(importer, never()).importPosts(anyList(), anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = "IMPORTER")
+    void importPosts_ImporterRoleMayNameOtherAuthors() throws Exception {
+        when(importer.importPosts(anyList(), eq("admin@example.com"))).thenReturn(Result.success(
+                new ImportResult(1, 0, List.of())));
+        ImportPost post = new ImportPost("Imported post", "Imported post body", "victim@example.com",
+                List.of("java"), null, List.of());
+
+        mockMvc.perform(post("/api/import/posts")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkImportRequest(List.of(post)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.postsImported").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "ghost@example.com")
+    void importPosts_Error_ImporterNotFound() throws Exception {
+        when(importer.importPosts(anyList(), any())).thenReturn(
+                Result.error(new ErrorResponse("User not found", "401")));
+
+        mockMvc.perform(post("/api/import/posts")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkImportRequest(List.of(postWithReplies(1))))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error.message").value("User not found"));
+    }
+
+    @Test
+    void importPosts_Error_Unauthenticated() throws Exception {
+        mockMvc.perform(post("/api/import/posts")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkImportRequest(List.of(postWithReplies(1))))))
+                .andExpect(status().is4xxClientError());
+
+        verify(importer, never()).importPosts(anyList(), anyString());
+    }
+}
@@ -1,18 +1,30 @@
 package com.echovenancio.ministack.controllers;
 
 import com.echovenancio.ministack.config.TestSecurityConfig;
+import com.echovenancio.ministack.config.WithAuthenticatedUser;
 import com.echovenancio.ministack.entity.Post;
 import com.echovenancio.ministack.entity.Reply;
 import com.echovenancio.ministack.entity.Tag;
 import com.echovenancio.ministack.entity.User;
 import com.echovenancio.ministack.models.CreatePostRequest;
+import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TagMatchMode;
+import com.echovenancio.ministack.models.TotalEstimate;
 import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.PostSummaryRow;
 import com.echovenancio.ministack.repository.ReplyRepository;
 import com.echovenancio.ministack.repository.TagRepository;
 import com.echovenancio.ministack.repository.UserRepository;
 import com.echovenancio.ministack.security.JWTFilter;
 import com.echovenancio.ministack.security.JWTUtil;
 import com.echovenancio.ministack.service.MyUserDetailsService;
+import com.echovenancio.ministack.service.PostSearchCache;
+import com.echovenancio.ministack.service.PostSearchEngine;
+import com.echovenancio.ministack.service.SuggestionIndex;
+import com.echovenancio.ministack.service.TagDictionary;
+import com.echovenancio.ministack.service.TagPostCounter;
+import com.echovenancio.ministack.utils.Cursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,8 +34,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -32,16 +46,23 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -57,8 +78,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = PostController.class)
 @AutoConfigureMockMvc(addFilters = true)
 @ContextConfiguration(classes = TestSecurityConfig.class)
+@Import({ PostSearchCache.class, TagDictionary.class })
 class PostControllerTest {
 
+    private record SummaryRow(Long getId, String getTitle, String getAuthorUsername, LocalDateTime getCreatedAt,
+            Long getReplyCount, String getTagNames) implements PostSummaryRow {
+
+        static SummaryRow of(Post post) {
+            return new SummaryRow(post.getId(), post.getTitle(), post.getUser().getUsername(), post.getCreatedAt(),
+                    post.getReplyCount(), null);
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -83,6 +114,21 @@ class PostControllerTest {
     @MockitoBean
     private ReplyRepository replyRepo;
 
+    @MockitoBean
+    private PostSearchEngine searchEngine;
+
+    @MockitoBean
+    private SuggestionIndex suggestions;
+
+    @MockitoBean
+    private TagPostCounter tagCounter;
+
+    @Autowired
+    private PostSearchCache searchCache;
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
     // Common mock data
     private User mockUser;
     private Tag mockTag1;
@@ -92,6 +138,8 @@ class PostControllerTest {
 
     @BeforeEach
     void setUp() {
+        searchCache.clear();
+        tagDictionary.refresh();
         mockUser = new User(1L, "testuser", "user@example.com", "encoded_password");
         mockTag1 = new Tag(10L, "java");
         mockTag2 = new Tag(11L, "spring");
@@ -103,12 +151,13 @@ class PostControllerTest {
 
     @Test
     void testGetPosts_Success_NoParams() throws Exception {
-        List<Post> posts = Collections.singletonList(mockPost);
+        List<PostDto> posts = Collections.singletonList(new PostDto(mockPost));
         Pageable pageable = PageRequest.of(0, 20);
-        when(postRepo.fullTextSearch(eq(null), eq(null), any(Pageable.class)))
+        when(searchEngine.search(eq(new PostSearchFilter(null, List.of(), TagMatchMode.ANY)), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(posts, pageable, posts.size()));
 
         mockMvc.perform(get("/api/posts/")
+                .param("count", "exact")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.value.content[0].id").value(String.valueOf(mockPost.getId())))
@@ -121,17 +170,17 @@ class PostControllerTest {
     void testGetPosts_Success_WithQueryAndTags() throws Exception {
         String query = "test";
         String tags = "java,spring";
-        List<Post> posts = Collections.singletonList(mockPost);
+        List<PostDto> posts = Collections.singletonList(new PostDto(mockPost));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(tagRepo.findByName("java")).thenReturn(Optional.of(mockTag1));
-        when(tagRepo.findByName("spring")).thenReturn(Optional.of(mockTag2));
-        when(postRepo.fullTextSearch(eq(query), eq(tags), eq(pageable)))
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(Arrays.asList(mockTag1, mockTag2));
+        when(searchEngine.search(eq(new PostSearchFilter(query, List.of(10L, 11L), TagMatchMode.ANY)), eq(pageable)))
                 .thenReturn(new PageImpl<>(posts, pageable, posts.size()));
 
         mockMvc.perform(get("/api/posts/")
                 .param("query", query)
                 .param("tags", tags)
+                .param("count", "exact")
                 .param("page", "0")
                 .param("size", "10")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -140,11 +189,41 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.error").doesNotExist());
     }
 
+    @Test
+    void testGetPosts_Success_MatchAllTags() throws Exception {
+        List<PostDto> posts = Collections.singletonList(new PostDto(mockPost));
+        Pageable pageable = PageRequest.of(0, 20);
+        PostSearchFilter expectedFilter = new PostSearchFilter(null, List.of(10L, 11L), TagMatchMode.ALL);
+
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(Arrays.asList(mockTag1, mockTag2));
+        when(searchEngine.search(eq(expectedFilter), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(posts, pageable, posts.size()));
+
+        mockMvc.perform(get("/api/posts/")
+                .param("tags", "java,spring")
+                .param("tagMode", "all")
+                .param("count", "exact")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].title").value(mockPost.getTitle()));
+
+        verify(searchEngine).search(eq(expectedFilter), any(Pageable.class));
+    }
+
+    @Test
+    void testGetPosts_Error_InvalidTagMode() throws Exception {
+        mockMvc.perform(get("/api/posts/")
+                .param("tags", "java")
+                .param("tagMode", "some")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Invalid tag mode: some"));
+    }
+
     @Test
     void testGetPosts_Error_TagNotFound() throws Exception {
         String tags = "java,unknown";
-        when(tagRepo.findByName("java")).thenReturn(Optional.of(mockTag1));
-        when(tagRepo.findByName("unknown")).thenReturn(Optional.empty());
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(Collections.singletonList(mockTag1));
 
         mockMvc.perform(get("/api/posts/")
                 .param("tags", tags)
@@ -157,34 +236,207 @@ class PostControllerTest {
 
     @Test
     void testGetPosts_Success_EmptyQueryStringHandledAsNull() throws Exception {
-        List<Post> posts = Collections.singletonList(mockPost);
+        List<PostDto> posts = Collections.singletonList(new PostDto(mockPost));
         Pageable pageable = PageRequest.of(0, 20);
+        PostSearchFilter expectedFilter = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
 
-        when(postRepo.fullTextSearch(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
-                ArgumentMatchers.any(Pageable.class)))
+        when(searchEngine.search(ArgumentMatchers.eq(expectedFilter), ArgumentMatchers.any(Pageable.class)))
                 .thenReturn(new PageImpl<>(posts, pageable, posts.size()));
 
         mockMvc.perform(get("/api/posts/")
                 .param("query", "")
+                .param("count", "exact")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.value.content[0].title").value(mockPost.getTitle()));
 
-        verify(postRepo).fullTextSearch(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(),
-                ArgumentMatchers.any(Pageable.class));
+        verify(searchEngine).search(ArgumentMatchers.eq(expectedFilter), ArgumentMatchers.any(Pageable.class));
+    }
+
+    @Test
+    void testGetPosts_DefaultsToEstimatedTotal() throws Exception {
+        Pageable pageable = PageRequest.of(0, 1);
+        PostSearchFilter filter = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
+        when(searchEngine.searchSlice(eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new PostDto(mockPost)), pageable, true));
+        when(searchEngine.estimateTotal(filter)).thenReturn(new TotalEstimate(5000, true));
+
+        mockMvc.perform(get("/api/posts/")
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].id").value(mockPost.getId()))
+                .andExpect(jsonPath("$.value.hasNext").value(true))
+                .andExpect(jsonPath("$.value.totalElements").value(5000))
+                .andExpect(jsonPath("$.value.approximate").value(true));
+
+        verify(searchEngine, never()).search(any(PostSearchFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    void testGetPosts_EstimateNeverBelowRowsAlreadySeen() throws Exception {
+        Pageable pageable = PageRequest.of(3, 10);
+        PostSearchFilter filter = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
+        when(searchEngine.searchSlice(eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new PostDto(mockPost)), pageable, false));
+        when(searchEngine.estimateTotal(filter)).thenReturn(new TotalEstimate(2, true));
+
+        mockMvc.perform(get("/api/posts/")
+                .param("page", "3")
+                .param("size", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.totalElements").value(31));
+    }
+
+    @Test
+    void testGetPosts_CountNone_ReturnsSliceWithoutTotal() throws Exception {
+        Pageable pageable = PageRequest.of(0, 20);
+        PostSearchFilter filter = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
+        when(searchEngine.searchSlice(eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new PostDto(mockPost)), pageable, false));
+
+        mockMvc.perform(get("/api/posts/")
+                .param("count", "none")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].title").value(mockPost.getTitle()))
+                .andExpect(jsonPath("$.value.hasNext").value(false))
+                .andExpect(jsonPath("$.value.totalElements").doesNotExist());
+
+        verify(searchEngine, never()).estimateTotal(any(PostSearchFilter.class));
+    }
+
+    @Test
+    void testGetPosts_Error_InvalidCountMode() throws Exception {
+        mockMvc.perform(get("/api/posts/")
+                .param("count", "roughly")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Invalid count mode: roughly"));
+    }
+
+    @Test
+    void testGetPosts_SortByRelevance_ReturnsRankedSliceWithSnippets() throws Exception {
+        PostDto ranked = new PostDto(mockPost);
+        ranked.setSnippet("Test Post <b>Body</b>");
+        PostSearchFilter filter = new PostSearchFilter("body", List.of(), TagMatchMode.ANY);
+        when(searchEngine.searchByRelevance(eq(filter), eq(PageRequest.of(0, 20)), eq(true)))
+                .thenReturn(new SliceImpl<>(List.of(ranked), PageRequest.of(0, 20), false));
+
+        mockMvc.perform(get("/api/posts/")
+                .param("query", "body")
+                .param("sort", "relevance")
+                .param("snippets", "true")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].snippet").value("Test Post <b>Body</b>"))
+                .andExpect(jsonPath("$.value.hasNext").value(false))
+                .andExpect(jsonPath("$.value.totalElements").doesNotExist());
+
+        verify(searchEngine, never()).searchSlice(any(PostSearchFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    void testGetPosts_SortByRelevance_Error_NoQuery() throws Exception {
+        mockMvc.perform(get("/api/posts/")
+                .param("sort", "relevance")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Sorting by relevance requires a query"));
+    }
+
+    @Test
+    void testGetPosts_SortByRelevance_Error_PastTopResults() throws Exception {
+        mockMvc.perform(get("/api/posts/")
+                .param("query", "body")
+                .param("sort", "relevance")
+                .param("page", "50")
+                .param("size", "20")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Relevance results are limited to the top 1000"));
+    }
+
+    @Test
+    void testGetPosts_RepeatedRequestServedFromCache() throws Exception {
+        Pageable pageable = PageRequest.of(0, 20);
+        PostSearchFilter filter = new PostSearchFilter("java", List.of(), TagMatchMode.ANY);
+        when(searchEngine.searchSlice(eq(filter), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new PostDto(mockPost)), pageable, false));
+
+        for (String query : List.of("java", "  JAVA ")) {
+            mockMvc.perform(get("/api/posts/")
+                    .param("query", query)
+                    .param("count", "none")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.value.content[0].title").value(mockPost.getTitle()));
+        }
+
+        verify(searchEngine, times(1)).searchSlice(any(PostSearchFilter.class), any(Pageable.class));
+        assertThat(searchCache.stats().hits()).isEqualTo(1);
+    }
+
+    // --- GET /api/posts/?limit= (getPostsByCursor) Tests ---
+
+    @Test
+    void testGetPostsByCursor_FirstPage_ReturnsNextCursor() throws Exception {
+        mockPost.setCreatedAt(LocalDateTime.of(2025, 6, 1, 12, 0));
+        Post olderPost = new Post(99L, "Older Post", "Older Body", mockUser, new HashSet<>(), new HashSet<>());
+        olderPost.setCreatedAt(LocalDateTime.of(2025, 5, 1, 12, 0));
+
+        when(postRepo.findPageAfter(isNull(), isNull(), eq(1), any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(2)))
+                .thenReturn(List.of(SummaryRow.of(mockPost), SummaryRow.of(olderPost)));
+
+        String expectedCursor = new Cursor(mockPost.getCreatedAt(), mockPost.getId()).encode();
+
+        mockMvc.perform(get("/api/posts/")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content.length()").value(1))
+                .andExpect(jsonPath("$.value.content[0].id").value(mockPost.getId()))
+                .andExpect(jsonPath("$.value.nextCursor").value(expectedCursor))
+                .andExpect(jsonPath("$.value.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testGetPostsByCursor_LastPage_HasNoNextCursor() throws Exception {
+        Cursor after = new Cursor(LocalDateTime.of(2025, 6, 1, 12, 0), 100L);
+
+        when(postRepo.findPageAfter(isNull(), isNull(), eq(1), eq(after.createdAt()), eq(100L), eq(11)))
+                .thenReturn(List.of(SummaryRow.of(mockPost)));
+
+        mockMvc.perform(get("/api/posts/")
+                .param("after", after.encode())
+                .param("limit", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content.length()").value(1))
+                .andExpect(jsonPath("$.value.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetPostsByCursor_Error_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/posts/")
+                .param("after", "not-a-cursor")
+                .param("limit", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Invalid cursor"));
     }
 
     // --- POST /api/posts (createPost) Tests ---
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
+    @WithAuthenticatedUser(id = 1L, username = "testuser", email = "user@example.com")
     void testCreatePost_Success() throws Exception {
         CreatePostRequest createRequest = new CreatePostRequest("New Post", "This is the body.",
                 new String[] { "java", "spring" });
 
-        when(userRepo.findByEmail("user@example.com")).thenReturn(Optional.of(mockUser));
-        when(tagRepo.findByName("java")).thenReturn(Optional.of(mockTag1));
-        when(tagRepo.findByName("spring")).thenReturn(Optional.of(mockTag2));
+        when(userRepo.getReferenceById(1L)).thenReturn(mockUser);
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(List.of(mockTag1, mockTag2));
         when(postRepo.save(any(Post.class))).thenAnswer(invocation -> {
             Post savedPost = invocation.getArgument(0);
             savedPost.setId(101L);
@@ -202,13 +454,19 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.value.tags").isArray())
                 .andExpect(jsonPath("$.value.tags").value(hasItems("java", "spring")))
                 .andExpect(jsonPath("$.error").doesNotExist());
+
+        verify(searchEngine).index(any(Post.class));
+        verify(suggestions).addPost(any(Post.class));
+        verify(tagCounter).postCreated(anyCollection());
+        // The author comes from the token: attached by reference, never looked up.
+        verify(userRepo, never()).findByEmail(any());
+        verify(userRepo, never()).findById(any());
     }
 
     @Test
-    @WithMockUser(username = "nonexistent@example.com", roles = "USER")
+    @WithMockUser(username = "nonexistent@example.com", roles = "USER") // Not a token principal
     void testCreatePost_Error_UserNotFound() throws Exception {
         CreatePostRequest createRequest = new CreatePostRequest("New Post", "Body", new String[] { "java" });
-        when(userRepo.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/api/posts")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -221,13 +479,11 @@ class PostControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "user@example.com", roles = "USER")
+    @WithAuthenticatedUser
     void testCreatePost_Error_TagNotFound() throws Exception {
         CreatePostRequest createRequest = new CreatePostRequest("New Post", "Body", new String[] { "java", "unknown" });
 
-        when(userRepo.findByEmail("user@example.com")).thenReturn(Optional.of(mockUser));
-        when(tagRepo.findByName("java")).thenReturn(Optional.of(mockTag1));
-        when(tagRepo.findByName("unknown")).thenReturn(Optional.empty());
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(List.of(mockTag1));
 
         mockMvc.perform(post("/api/posts")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -282,7 +538,6 @@ class PostControllerTest {
     @WithMockUser(username = "user@example.com", roles = "USER")
     void testDeletePost_Success() throws Exception {
         when(postRepo.findById(100L)).thenReturn(Optional.of(mockPost));
-        when(replyRepo.save(any(Reply.class))).thenReturn(mockReply);
         doNothing().when(postRepo).delete(any(Post.class));
 
         mockMvc.perform(delete("/api/posts/{id}", 100L)
@@ -292,7 +547,11 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.error").doesNotExist());
 
         verify(postRepo).delete(mockPost);
-        verify(replyRepo).save(mockReply);
+        verify(replyRepo).softDeleteByPost(100L);
+        verify(replyRepo, never()).save(any(Reply.class));
+        verify(searchEngine).remove(100L);
+        verify(suggestions).removePost(mockPost);
+        verify(tagCounter).postDeleted(mockPost.getTags());
     }
 
     @Test
@@ -340,7 +599,7 @@ class PostControllerTest {
                 new String[] { "java" });
 
         when(postRepo.findById(100L)).thenReturn(Optional.of(mockPost));
-        when(tagRepo.findByName("java")).thenReturn(Optional.of(mockTag1));
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(List.of(mockTag1));
         when(postRepo.save(any(Post.class))).thenAnswer(invocation -> {
             Post updatedPost = invocation.getArgument(0);
             updatedPost.setTags(new HashSet<>(Collections.singletonList(mockTag1)));
@@ -357,6 +616,12 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.value.body").value("Updated Body"))
                 .andExpect(jsonPath("$.value.tags").value(hasItem("java")))
                 .andExpect(jsonPath("$.error").doesNotExist());
+
+        verify(searchEngine).index(mockPost);
+        verify(suggestions).removePost(argThat(previous -> previous.getId().equals(100L)
+                && previous.getTitle().equals("Test Post Title")));
+        verify(suggestions).addPost(mockPost);
+        verify(tagCounter).postRetagged(anyCollection(), anyCollection());
     }
 
     @Test
@@ -400,8 +665,7 @@ class PostControllerTest {
                 new String[] { "java", "unknown" });
 
         when(postRepo.findById(100L)).thenReturn(Optional.of(mockPost));
-        when(tagRepo.findByName("java")).thenReturn(Optional.of(mockTag1));
-        when(tagRepo.findByName("unknown")).thenReturn(Optional.empty());
+        when(tagRepo.findByNameIn(anyCollection())).thenReturn(List.of(mockTag1));
 
         mockMvc.perform(put("/api/posts/{id}", 100L)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -409,6 +673,9 @@ class PostControllerTest {
                 .with(csrf()))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error.message").value("Tag not found: unknown"));
+
+        assertThat(mockPost.getTitle()).isEqualTo("Test Post Title");
+        verify(postRepo, never()).save(any(Post.class));
     }
 
     @Test
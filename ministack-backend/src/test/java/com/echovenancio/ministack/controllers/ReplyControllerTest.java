@@ -1,6 +1,7 @@
 package com.echovenancio.ministack.controllers;
 
 import com.echovenancio.ministack.config.TestSecurityConfig;
+import com.echovenancio.ministack.config.WithAuthenticatedUser;
 import com.echovenancio.ministack.entity.Post;
 import com.echovenancio.ministack.entity.Reply;
 import com.echovenancio.ministack.entity.User;
@@ -11,9 +12,13 @@ import com.echovenancio.ministack.repository.UserRepository;
 import com.echovenancio.ministack.security.JWTFilter;
 import com.echovenancio.ministack.security.JWTUtil;
 import com.echovenancio.ministack.service.MyUserDetailsService;
+import com.echovenancio.ministack.service.ReplyCounter;
+import com.echovenancio.ministack.utils.Cursor;
+import com.echovenancio.ministack.utils.ReplyPath;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito; 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -30,10 +35,12 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -60,6 +67,9 @@ class ReplyControllerTest {
     @MockitoBean
     private UserRepository userRepo;
 
+    @MockitoBean
+    private ReplyCounter replyCounter;
+
     @MockitoBean 
     private MyUserDetailsService userDetailsService;
 
@@ -74,7 +84,7 @@ class ReplyControllerTest {
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(replyRepo, postRepo, userRepo);
+        Mockito.reset(replyRepo, postRepo, userRepo, replyCounter);
 
         mockUser = new User(1L, "testuser", "test@example.com", "encodedpassword");
         mockPost = new Post(100L, "Test Post Title", "Test Post Body", mockUser);
@@ -87,8 +97,8 @@ class ReplyControllerTest {
     @Test
     void getReplies_ShouldReturnPageOfReplies() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        List<Reply> replies = Collections.singletonList(mockReply);
-        Page<Reply> replyPage = new PageImpl<>(replies, pageable, replies.size());
+        List<ReplyDto> replies = Collections.singletonList(new ReplyDto(mockReply));
+        Page<ReplyDto> replyPage = new PageImpl<>(replies, pageable, replies.size());
 
         when(replyRepo.findByPostIdAndParentReplyIsNull(eq(mockPost.getId()), any(Pageable.class)))
                 .thenReturn(replyPage);
@@ -108,7 +118,7 @@ class ReplyControllerTest {
     @Test
     void getReplies_ShouldReturnEmptyPage_WhenNoReplies() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Reply> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<ReplyDto> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
         when(replyRepo.findByPostIdAndParentReplyIsNull(eq(mockPost.getId()), any(Pageable.class)))
                 .thenReturn(emptyPage);
@@ -124,6 +134,65 @@ class ReplyControllerTest {
         verify(replyRepo, times(1)).findByPostIdAndParentReplyIsNull(eq(mockPost.getId()), any(Pageable.class));
     }
 
+    // --- GET /api/posts/{postId}/replies/?limit= and /{replyId}/nested?limit= ---
+    private static ReplyDto replyAt(long id, Long parentReplyId, LocalDateTime createdAt) {
+        return new ReplyDto(id, "Reply " + id, 1L, parentReplyId, 1L, "testuser", createdAt, "", 0);
+    }
+
+    @Test
+    void getRepliesByCursor_FirstPage_ReturnsNextCursor() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 1, 12, 0, 0, 123_456_000);
+        when(replyRepo.findTopLevelAfter(eq(mockPost.getId()), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(replyAt(1L, null, createdAt), replyAt(2L, null, createdAt),
+                        replyAt(3L, null, createdAt)));
+
+        mockMvc.perform(get("/api/posts/{postId}/replies/", mockPost.getId())
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content.length()").value(2))
+                .andExpect(jsonPath("$.value.content[1].createdAtValue").doesNotExist())
+                .andExpect(jsonPath("$.value.content[1].id").value(2))
+                .andExpect(jsonPath("$.value.nextCursor").value(new Cursor(createdAt, 2L).encode()));
+
+        verify(replyRepo).findTopLevelAfter(mockPost.getId(), Cursor.origin().createdAt(), Cursor.origin().id(),
+                PageRequest.of(0, 3));
+        verify(replyRepo, never()).findByPostIdAndParentReplyIsNull(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getNestedRepliesByCursor_LastPage_HasNoNextCursor() throws Exception {
+        Cursor after = new Cursor(LocalDateTime.of(2025, 6, 1, 12, 0), 4L);
+        when(replyRepo.findChildrenAfter(mockPost.getId(), mockParentReply.getId(), after.createdAt(), after.id(),
+                PageRequest.of(0, 11)))
+                .thenReturn(List.of(replyAt(5L, mockParentReply.getId(), LocalDateTime.of(2025, 6, 1, 12, 1))));
+
+        mockMvc.perform(get("/api/posts/{postId}/replies/{replyId}/nested", mockPost.getId(), mockParentReply.getId())
+                .param("after", after.encode())
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].id").value(5))
+                .andExpect(jsonPath("$.value.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getNestedRepliesByCursor_Error_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/posts/{postId}/replies/{replyId}/nested", mockPost.getId(), mockParentReply.getId())
+                .param("after", "not-a-cursor")
+                .param("limit", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void getRepliesByCursor_Error_LimitTooLarge() throws Exception {
+        mockMvc.perform(get("/api/posts/{postId}/replies/", mockPost.getId())
+                .param("limit", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Limit must be between 1 and 100"));
+
+        verify(replyRepo, never()).findTopLevelAfter(anyLong(), any(), anyLong(), any());
+    }
+
     // --- GET /api/posts/{postId}/replies/{replyId} ---
     @Test
     void getReply_ShouldReturnReplyDto_WhenFound() throws Exception {
@@ -156,8 +225,8 @@ class ReplyControllerTest {
     @Test
     void getNestedReplies_ShouldReturnPageOfNestedReplies() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        List<Reply> nestedReplies = Collections.singletonList(mockNestedReply);
-        Page<Reply> nestedReplyPage = new PageImpl<>(nestedReplies, pageable, nestedReplies.size());
+        List<ReplyDto> nestedReplies = Collections.singletonList(new ReplyDto(mockNestedReply));
+        Page<ReplyDto> nestedReplyPage = new PageImpl<>(nestedReplies, pageable, nestedReplies.size());
 
         when(replyRepo.findByPostIdAndParentReplyId(eq(mockPost.getId()), eq(mockParentReply.getId()), any(Pageable.class)))
                 .thenReturn(nestedReplyPage);
@@ -177,7 +246,7 @@ class ReplyControllerTest {
     @Test
     void getNestedReplies_ShouldReturnEmptyPage_WhenNoNestedReplies() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Reply> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<ReplyDto> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
         when(replyRepo.findByPostIdAndParentReplyId(eq(mockPost.getId()), eq(mockParentReply.getId()), any(Pageable.class)))
                 .thenReturn(emptyPage);
@@ -193,14 +262,42 @@ class ReplyControllerTest {
         verify(replyRepo, times(1)).findByPostIdAndParentReplyId(eq(mockPost.getId()), eq(mockParentReply.getId()), any(Pageable.class));
     }
 
+    // --- GET /api/posts/{postId}/replies/{replyId}/descendants ---
+    @Test
+    void getDescendants_ShouldScanSubtreeRange() throws Exception {
+        Page<ReplyDto> page = new PageImpl<>(List.of(new ReplyDto(mockNestedReply)), PageRequest.of(0, 20), 1);
+        when(replyRepo.findByIdAndPostId(eq(mockParentReply.getId()), eq(mockPost.getId())))
+                .thenReturn(Optional.of(mockParentReply));
+        when(replyRepo.findDescendants(eq("0000000000000000002/"), eq("00000000000000000020"), eq(40),
+                any(Pageable.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/posts/{postId}/replies/{replyId}/descendants", mockPost.getId(),
+                mockParentReply.getId())
+                .param("maxDepth", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].id").value(mockNestedReply.getId()))
+                .andExpect(jsonPath("$.value.totalElements").value(1));
+    }
+
+    @Test
+    void getDescendants_ShouldReturnNotFound_WhenReplyNotInPost() throws Exception {
+        when(replyRepo.findByIdAndPostId(anyLong(), anyLong())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/posts/{postId}/replies/{replyId}/descendants", mockPost.getId(), 999L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.message").value("Reply not found"));
+
+        verify(replyRepo, never()).findDescendants(anyString(), anyString(), anyInt(), any(Pageable.class));
+    }
+
     // --- POST /api/posts/{postId}/replies/ ---
     @Test
-    @WithMockUser(username = "test@example.com") // Simulate an authenticated user
+    @WithAuthenticatedUser(email = "test@example.com")
     void createReply_ShouldCreateTopLevelReply_WhenValid() throws Exception {
         CreateReplyRequest request = new CreateReplyRequest("New top-level reply body.", null);
         Reply newReply = new Reply(4L, request.getBody(), mockUser, mockPost);
 
-        when(userRepo.findByEmail(eq("test@example.com"))).thenReturn(Optional.of(mockUser));
+        when(userRepo.getReferenceById(eq(mockUser.getId()))).thenReturn(mockUser);
         when(postRepo.findById(eq(mockPost.getId()))).thenReturn(Optional.of(mockPost));
 
         when(replyRepo.save(any(Reply.class))).thenReturn(newReply);
@@ -213,20 +310,21 @@ class ReplyControllerTest {
                 .andExpect(jsonPath("$.value.id").value(newReply.getId()))
                 .andExpect(jsonPath("$.value.body").value(newReply.getBody()));
 
-        verify(userRepo, times(1)).findByEmail(eq("test@example.com"));
+        verify(userRepo, never()).findByEmail(anyString());
         verify(postRepo, times(1)).findById(eq(mockPost.getId()));
         verify(replyRepo, times(1)).save(any(Reply.class));
     }
 
     @Test
-    @WithMockUser(username = "test@example.com")
+    @WithAuthenticatedUser(email = "test@example.com")
     void createReply_ShouldCreateNestedReply_WhenParentExists() throws Exception {
         CreateReplyRequest request = new CreateReplyRequest("New nested reply body.", mockParentReply.getId());
         Reply newNestedReply = new Reply(5L, request.getBody(), mockPost, mockParentReply, mockUser);
 
-        when(userRepo.findByEmail(eq("test@example.com"))).thenReturn(Optional.of(mockUser));
+        when(userRepo.getReferenceById(eq(mockUser.getId()))).thenReturn(mockUser);
         when(postRepo.findById(eq(mockPost.getId()))).thenReturn(Optional.of(mockPost));
-        when(replyRepo.findById(eq(mockParentReply.getId()))).thenReturn(Optional.of(mockParentReply)); 
+        when(replyRepo.findByIdAndPostId(eq(mockParentReply.getId()), eq(mockPost.getId())))
+                .thenReturn(Optional.of(mockParentReply));
         when(replyRepo.save(any(Reply.class))).thenReturn(newNestedReply);
 
         mockMvc.perform(post("/api/posts/{postId}/replies/", mockPost.getId())
@@ -237,10 +335,35 @@ class ReplyControllerTest {
                 .andExpect(jsonPath("$.value.id").value(newNestedReply.getId()))
                 .andExpect(jsonPath("$.value.parentReplyId").value(mockParentReply.getId()));
 
-        verify(userRepo, times(1)).findByEmail(eq("test@example.com"));
+        verify(userRepo, never()).findByEmail(anyString());
         verify(postRepo, times(1)).findById(eq(mockPost.getId()));
-        verify(replyRepo, times(1)).findById(eq(mockParentReply.getId()));
+        verify(replyRepo, times(1)).findByIdAndPostId(eq(mockParentReply.getId()), eq(mockPost.getId()));
         verify(replyRepo, times(1)).save(any(Reply.class));
+        verify(replyCounter).replyCreated(newNestedReply);
+    }
+
+    @Test
+    @WithAuthenticatedUser(email = "test@example.com")
+    void createReply_ShouldExtendParentPath_WhenNested() throws Exception {
+        mockParentReply.setPath(ReplyPath.segment(1L));
+        CreateReplyRequest request = new CreateReplyRequest("New nested reply body.", mockParentReply.getId());
+
+        when(userRepo.getReferenceById(eq(mockUser.getId()))).thenReturn(mockUser);
+        when(postRepo.findById(eq(mockPost.getId()))).thenReturn(Optional.of(mockPost));
+        when(replyRepo.findByIdAndPostId(eq(mockParentReply.getId()), eq(mockPost.getId())))
+                .thenReturn(Optional.of(mockParentReply));
+        when(replyRepo.save(any(Reply.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post("/api/posts/{postId}/replies/", mockPost.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.value.depth").value(3));
+
+        ArgumentCaptor<Reply> saved = ArgumentCaptor.forClass(Reply.class);
+        verify(replyRepo).save(saved.capture());
+        assertEquals("0000000000000000001/0000000000000000002/", saved.getValue().getPath());
     }
 
     @Test
@@ -256,12 +379,10 @@ class ReplyControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "nonexistent@example.com")
+    @WithMockUser(username = "nonexistent@example.com") // Not a token principal
     void createReply_ShouldReturnUnauthorized_WhenUserNotFound() throws Exception {
         CreateReplyRequest request = new CreateReplyRequest("Some reply", null);
 
-        when(userRepo.findByEmail(eq("nonexistent@example.com"))).thenReturn(Optional.empty());
-
         mockMvc.perform(post("/api/posts/{postId}/replies/", mockPost.getId())
                 .with(csrf()) 
                 .contentType(MediaType.APPLICATION_JSON)
@@ -269,17 +390,14 @@ class ReplyControllerTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.error.message").value("User not found"));
 
-        verify(userRepo, times(1)).findByEmail(eq("nonexistent@example.com"));
-        verifyNoMoreInteractions(userRepo); 
-        verifyNoInteractions(postRepo, replyRepo);
+        verifyNoInteractions(userRepo, postRepo, replyRepo);
     }
 
     @Test
-    @WithMockUser(username = "test@example.com")
+    @WithAuthenticatedUser(email = "test@example.com")
     void createReply_ShouldReturnNotFound_WhenPostNotFound() throws Exception {
         CreateReplyRequest request = new CreateReplyRequest("Some reply", null);
 
-        when(userRepo.findByEmail(eq("test@example.com"))).thenReturn(Optional.of(mockUser));
         when(postRepo.findById(anyLong())).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/api/posts/{postId}/replies/", 999L) 
@@ -289,18 +407,17 @@ class ReplyControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error.message").value("Post not found"));
 
-        verify(userRepo, times(1)).findByEmail(eq("test@example.com"));
+        verify(userRepo, never()).findByEmail(anyString());
         verify(postRepo, times(1)).findById(anyLong());
         verifyNoInteractions(replyRepo); 
     }
 
     @Test
-    @WithMockUser(username = "test@example.com")
+    @WithAuthenticatedUser(email = "test@example.com")
     void createReply_ShouldReturnBadRequest_WhenParentReplyNotFound() throws Exception {
         CreateReplyRequest request = new CreateReplyRequest("Some reply", 999L); 
 
-        when(userRepo.findByEmail(eq("test@example.com"))).thenReturn(Optional.of(mockUser));
-        when(replyRepo.findById(anyLong())).thenReturn(Optional.empty()); 
+        when(replyRepo.findByIdAndPostId(anyLong(), anyLong())).thenReturn(Optional.empty()); 
 
         mockMvc.perform(post("/api/posts/{postId}/replies/", mockPost.getId())
                 .with(csrf()) 
@@ -309,11 +426,28 @@ class ReplyControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error.message").value("Parent reply not found"));
 
-        verify(userRepo, times(1)).findByEmail(eq("test@example.com"));
-        verify(replyRepo, times(1)).findById(anyLong());
+        verify(userRepo, never()).findByEmail(anyString());
+        verify(replyRepo, times(1)).findByIdAndPostId(999L, mockPost.getId());
         verifyNoInteractions(postRepo); 
     }
 
+    @Test
+    @WithAuthenticatedUser(email = "test@example.com")
+    void createReply_ShouldReturnBadRequest_WhenParentBelongsToAnotherPost() throws Exception {
+        CreateReplyRequest request = new CreateReplyRequest("Some reply", mockParentReply.getId());
+        when(replyRepo.findByIdAndPostId(eq(mockParentReply.getId()), eq(200L))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/posts/{postId}/replies/", 200L)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Parent reply not found"));
+
+        verify(replyRepo, never()).save(any(Reply.class));
+        verifyNoInteractions(replyCounter);
+    }
+
 
     // --- DELETE /api/posts/{postId}/replies/{replyId} ---
     @Test
@@ -329,6 +463,22 @@ class ReplyControllerTest {
 
         verify(replyRepo, times(1)).findById(eq(mockReply.getId()));
         verify(replyRepo, times(1)).delete(eq(mockReply));
+        verify(replyCounter).replyDeleted(mockReply);
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com", roles = "USER")
+    void deleteReply_ShouldLeaveChildrenInPlace_WhenReplyHasChildren() throws Exception {
+        when(replyRepo.findById(eq(mockParentReply.getId()))).thenReturn(Optional.of(mockParentReply));
+
+        mockMvc.perform(delete("/api/posts/{postId}/replies/{replyId}", mockPost.getId(), mockParentReply.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(replyRepo).delete(eq(mockParentReply));
+        verify(replyRepo, never()).save(any(Reply.class));
+        verify(replyCounter).replyDeleted(mockParentReply);
     }
 
     @Test
@@ -344,6 +494,7 @@ class ReplyControllerTest {
 
         verify(replyRepo, times(1)).findById(anyLong());
         verify(replyRepo, never()).delete(any(Reply.class));
+        verifyNoInteractions(replyCounter);
     }
 
     @Test
@@ -0,0 +1,75 @@
+package com.echovenancio.ministack.controllers;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.echovenancio.ministack.config.TestSecurityConfig;
+import com.echovenancio.ministack.models.Suggestion;
+import com.echovenancio.ministack.models.SuggestionType;
+import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.service.MyUserDetailsService;
+import com.echovenancio.ministack.service.SuggestionIndex;
+
+@WebMvcTest(controllers = SuggestController.class)
+@AutoConfigureMockMvc(addFilters = true)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+class SuggestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MyUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private SuggestionIndex suggestions;
+
+    @Test
+    void testSuggest_Success_WithoutAuthentication() throws Exception {
+        when(suggestions.suggest("spr", 10)).thenReturn(List.of(
+                new Suggestion("spring", SuggestionType.TAG, 11L, 42),
+                new Suggestion("Spring Boot startup", SuggestionType.POST, 2L, 3)));
+
+        mockMvc.perform(get("/api/suggest").param("prefix", "spr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value[0].text").value("spring"))
+                .andExpect(jsonPath("$.value[0].type").value("TAG"))
+                .andExpect(jsonPath("$.value[1].id").value(2))
+                .andExpect(jsonPath("$.error").doesNotExist());
+    }
+
+    @Test
+    void testSuggest_Error_BlankPrefix() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("prefix", "  "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Prefix must not be blank"));
+
+        verify(suggestions, never()).suggest(anyString(), anyInt());
+    }
+
+    @Test
+    void testSuggest_Error_LimitTooLarge() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("prefix", "spr").param("limit", "50"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Limit must be between 1 and 20"));
+    }
+}
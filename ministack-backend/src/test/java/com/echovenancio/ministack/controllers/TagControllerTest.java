@@ -0,0 +1,80 @@
+package com.echovenancio.ministack.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.echovenancio.ministack.config.TestSecurityConfig;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.repository.TagRepository;
+import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.service.MyUserDetailsService;
+
+@WebMvcTest(controllers = TagController.class)
+@AutoConfigureMockMvc(addFilters = true)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+class TagControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MyUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private TagRepository tagRepo;
+
+    @Test
+    void testGetTags_DefaultsToMostUsedFirst() throws Exception {
+        Tag spring = new Tag(11L, "spring");
+        spring.setPostCount(42);
+        Pageable expected = PageRequest.of(0, 50, Sort.by(Sort.Order.desc("postCount"), Sort.Order.asc("name")));
+        when(tagRepo.findAll(expected)).thenReturn(new PageImpl<>(List.of(spring), expected, 1));
+
+        mockMvc.perform(get("/api/tags"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].name").value("spring"))
+                .andExpect(jsonPath("$.value.content[0].postCount").value(42))
+                .andExpect(jsonPath("$.value.totalElements").value(1));
+    }
+
+    @Test
+    void testGetTags_SortByName() throws Exception {
+        Pageable expected = PageRequest.of(1, 10, Sort.by(Sort.Order.asc("name")));
+        when(tagRepo.findAll(expected)).thenReturn(new PageImpl<>(List.of(new Tag(10L, "java")), expected, 11));
+
+        mockMvc.perform(get("/api/tags").param("sort", "name").param("page", "1").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.content[0].name").value("java"));
+    }
+
+    @Test
+    void testGetTags_Error_InvalidSort() throws Exception {
+        mockMvc.perform(get("/api/tags").param("sort", "popularity"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Invalid sort: popularity"));
+
+        verify(tagRepo, never()).findAll(any(Pageable.class));
+    }
+}
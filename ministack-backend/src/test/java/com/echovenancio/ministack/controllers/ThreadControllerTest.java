@@ -0,0 +1,141 @@
+package com.echovenancio.ministack.controllers;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.echovenancio.ministack.config.TestSecurityConfig;
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.ReplyRepository;
+import com.echovenancio.ministack.repository.ThreadReplyRow;
+import com.echovenancio.ministack.security.JWTUtil;
+import com.echovenancio.ministack.service.MyUserDetailsService;
+
+@WebMvcTest(controllers = ThreadController.class)
+@AutoConfigureMockMvc(addFilters = true)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+class ThreadControllerTest {
+
+    private record Row(Long getId, Long getParentReplyId, String getBody, Long getUserId, String getUsername,
+            LocalDateTime getCreatedAt, Integer getDepth, Boolean getDeleted) implements ThreadReplyRow {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MyUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private PostRepository postRepo;
+
+    @MockitoBean
+    private ReplyRepository replyRepo;
+
+    private static Row row(long id, Long parentId, int depth) {
+        return new Row(id, parentId, "Reply " + id, 1L, "testuser", LocalDateTime.of(2025, 1, 1, 12, 0), depth,
+                false);
+    }
+
+    private static Row deleted(long id, Long parentId, int depth) {
+        return new Row(id, parentId, null, null, null, LocalDateTime.of(2025, 1, 1, 12, 0), depth, true);
+    }
+
+    private void givenPost() {
+        User user = new User(1L, "testuser", "user@example.com", "encoded_password");
+        Post post = new Post(100L, "Test Post Title", "Test Post Body", user,
+                new HashSet<>(Set.of(new Tag(10L, "java"))), new HashSet<>());
+        when(postRepo.findWithUserAndTagsById(100L)).thenReturn(Optional.of(post));
+    }
+
+    @Test
+    void testGetThread_NestsRepliesUnderTheirParents() throws Exception {
+        givenPost();
+        when(replyRepo.findThread(100L, 10, 501)).thenReturn(List.of(
+                row(1, null, 1), row(2, null, 1), row(3, 1L, 2), row(4, 1L, 2), row(5, 3L, 3)));
+
+        mockMvc.perform(get("/api/posts/100/thread"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.post.title").value("Test Post Title"))
+                .andExpect(jsonPath("$.value.post.tags[0]").value("java"))
+                .andExpect(jsonPath("$.value.replies.length()").value(2))
+                .andExpect(jsonPath("$.value.replies[0].replies[0].id").value(3))
+                .andExpect(jsonPath("$.value.replies[0].replies[1].id").value(4))
+                .andExpect(jsonPath("$.value.replies[0].replies[0].replies[0].id").value(5))
+                .andExpect(jsonPath("$.value.replies[0].replies[0].replies[0].username").value("testuser"))
+                .andExpect(jsonPath("$.value.replies[1].replies.length()").value(0))
+                .andExpect(jsonPath("$.value.truncated").value(false));
+    }
+
+    @Test
+    void testGetThread_KeepsDeletedRepliesOnlyAboveLiveOnes() throws Exception {
+        givenPost();
+        when(replyRepo.findThread(100L, 10, 501)).thenReturn(List.of(
+                deleted(1, null, 1), deleted(2, null, 1), row(3, 1L, 2), deleted(4, 2L, 2)));
+
+        mockMvc.perform(get("/api/posts/100/thread"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.replies.length()").value(1))
+                .andExpect(jsonPath("$.value.replies[0].id").value(1))
+                .andExpect(jsonPath("$.value.replies[0].deleted").value(true))
+                .andExpect(jsonPath("$.value.replies[0].body").isEmpty())
+                .andExpect(jsonPath("$.value.replies[0].replies[0].id").value(3))
+                .andExpect(jsonPath("$.value.replies[0].replies[0].deleted").value(false));
+    }
+
+    @Test
+    void testGetThread_FlagsTruncatedThread() throws Exception {
+        givenPost();
+        when(replyRepo.findThread(100L, 10, 3)).thenReturn(List.of(
+                row(1, null, 1), row(2, null, 1), row(3, 1L, 2)));
+
+        mockMvc.perform(get("/api/posts/100/thread").param("maxReplies", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value.replies.length()").value(2))
+                .andExpect(jsonPath("$.value.replies[0].replies.length()").value(0))
+                .andExpect(jsonPath("$.value.truncated").value(true));
+    }
+
+    @Test
+    void testGetThread_Error_PostNotFound() throws Exception {
+        when(postRepo.findWithUserAndTagsById(999L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/posts/999/thread"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.message").value("Post not found"));
+
+        verify(replyRepo, never()).findThread(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetThread_Error_DepthTooLarge() throws Exception {
+        mockMvc.perform(get("/api/posts/100/thread").param("maxDepth", "51"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value("Max depth must be between 1 and 50"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.echovenancio.ministack.controllers;
 
+import com.echovenancio.ministack.config.WithAuthenticatedUser;
 import com.echovenancio.ministack.entity.User;
 import com.echovenancio.ministack.repository.UserRepository;
 import com.echovenancio.ministack.security.JWTFilter; // Adjusted import for JWTFilter
@@ -9,11 +10,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
-// IMPORTANT NEW IMPORTS FOR SECURITY TEST UTILITIES
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user; // <--- ADD THIS
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 
@@ -39,16 +37,15 @@ class UserControllerTest {
     private UserRepository userRepo;
 
     @Test
-    @WithMockUser(username = "email@example.com", roles = { "USER" }) // User "email@example.com"
+    @WithAuthenticatedUser(id = 7L, email = "email@example.com")
     void testGetUserDetails() throws Exception {
         User mockUser = new User();
+        mockUser.setId(7L);
         mockUser.setEmail("email@example.com");
 
-        when(userRepo.findByEmail("email@example.com")).thenReturn(Optional.of(mockUser));
+        when(userRepo.findById(7L)).thenReturn(Optional.of(mockUser));
 
-        mockMvc.perform(get("/api/user/info")
-                .with(user("email@example.com"))) // <--- ADD THIS LINE!
-                                                  // It ensures the request has the mock user's principal
+        mockMvc.perform(get("/api/user/info"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("email@example.com"));
     }
@@ -0,0 +1,123 @@
+package com.echovenancio.ministack.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Reply;
+import com.echovenancio.ministack.repository.BulkContentWriter.NewPost;
+import com.echovenancio.ministack.repository.BulkContentWriter.NewReply;
+import com.echovenancio.ministack.utils.ReplyPath;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(BulkContentWriter.class)
+class BulkContentWriterTest {
+
+    private static final int POSTS = 200;
+
+    // Each top-level reply gets one child.
+    private static final int THREADS_PER_POST = 25;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private BulkContentWriter writer;
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE post_tags, reply, users_posts, post, tag, users");
+        jdbc.update("INSERT INTO users (id, email, password, username) VALUES (1, 'user@example.com', 'x', 'user')");
+        jdbc.update("INSERT INTO tag (id, name) VALUES (1, 'java')");
+    }
+
+    @Test
+    void allocateIds_NeverOverlapsEntityIds() {
+        List<Long> ids = writer.allocateIds("post_seq", Post.ID_ALLOCATION_SIZE, 120);
+
+        Post post = new Post();
+        post.setTitle("Saved through the entity");
+        post.setBody("Body of the saved post");
+        Post saved = postRepo.save(post);
+
+        assertThat(ids).hasSize(120).doesNotHaveDuplicates().allMatch(id -> id > 0);
+        assertThat(ids).doesNotContain(saved.getId());
+    }
+
+    @Test
+    void insertBatches_WriteReplyTreesWithPathsAndCounts() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<NewPost> posts = new ArrayList<>();
+        List<NewReply> replies = new ArrayList<>();
+        tx.executeWithoutResult(status -> {
+            Iterator<Long> postIds = writer.allocateIds("post_seq", Post.ID_ALLOCATION_SIZE, POSTS).iterator();
+            Iterator<Long> replyIds = writer.allocateIds("reply_seq", Reply.ID_ALLOCATION_SIZE,
+                    POSTS * THREADS_PER_POST * 2).iterator();
+            for (int p = 0; p < POSTS; p++) {
+                long postId = postIds.next();
+                posts.add(new NewPost(postId, "Imported " + p, "Imported body " + p, 1L, now,
+                        THREADS_PER_POST * 2, Set.of(1L)));
+                for (int t = 0; t < THREADS_PER_POST; t++) {
+                    long parentId = replyIds.next();
+                    replies.add(new NewReply(parentId, "top", postId, null, 1L, now, "", 1));
+                    replies.add(new NewReply(replyIds.next(), "child", postId, parentId, null, now,
+                            ReplyPath.segment(parentId), 0));
+                }
+            }
+            writer.insertPosts(posts);
+            writer.insertReplies(replies);
+        });
+
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM post", Long.class)).isEqualTo(POSTS);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM post_tags", Long.class)).isEqualTo(POSTS);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM reply", Long.class))
+                .isEqualTo((long) POSTS * THREADS_PER_POST * 2);
+        // The search trigger still fires for rows written outside the entities.
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM post WHERE search_vector IS NULL", Long.class))
+                .isZero();
+
+        NewReply child = replies.get(1);
+        assertThat(jdbc.queryForObject("SELECT path FROM reply WHERE id = ?", String.class, child.id()))
+                .isEqualTo(ReplyPath.segment(child.parentReplyId()));
+        assertThat(jdbc.queryForObject("SELECT child_count FROM reply WHERE id = ?", Long.class,
+                child.parentReplyId())).isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT reply_count FROM post WHERE id = ?", Long.class, posts.get(0).id()))
+                .isEqualTo(THREADS_PER_POST * 2L);
+    }
+}
@@ -0,0 +1,227 @@
+package com.echovenancio.ministack.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.echovenancio.ministack.service.SnippetBuilder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class PostRepositoryTest {
+
+    private static final int SEEDED_POSTS = 20_000;
+
+    private static final int SEEDED_TAGS = 200;
+
+    // The tag filter as it was before the semi-join rewrite, kept to compare plans.
+    private static final String LEGACY_TAG_SEARCH_QUERY = """
+            SELECT DISTINCT p.*
+            FROM post p
+            LEFT JOIN post_tags pt ON p.id = pt.post_id
+            LEFT JOIN tag t ON pt.tag_id = t.id
+            WHERE (:tags IS NULL OR t.name = ANY (string_to_array(:tags, ',')))
+            AND (
+                :query IS NULL OR
+                p.search_vector @@ plainto_tsquery('simple', :query)
+            )
+            """;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private TagRepository tagRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE post_tags, reply, users_posts, post, tag, users");
+        // Every post shares the same common words; only one in a thousand mentions "needle".
+        jdbc.update("""
+                INSERT INTO post (id, title, body, created_at)
+                SELECT g,
+                       'question number ' || g,
+                       'some common words about java and spring' || CASE WHEN g % 1000 = 0 THEN ' needle' ELSE '' END,
+                       now() - g * interval '1 minute'
+                FROM generate_series(1, ?) g
+                """, SEEDED_POSTS);
+        jdbc.update("INSERT INTO tag (id, name) SELECT g, 'tag' || g FROM generate_series(1, ?) g", SEEDED_TAGS);
+        // Each post gets two tags: tag (id % 200) + 1 and its neighbour, so every tag covers 1% of posts.
+        jdbc.update("""
+                INSERT INTO post_tags (post_id, tag_id)
+                SELECT p.id, t.tag_id
+                FROM post p
+                CROSS JOIN LATERAL (VALUES (p.id % ? + 1), ((p.id + 1) % ? + 1)) AS t(tag_id)
+                """, SEEDED_TAGS, SEEDED_TAGS);
+        jdbc.execute("ANALYZE post");
+        jdbc.execute("ANALYZE tag");
+        jdbc.execute("ANALYZE post_tags");
+    }
+
+    @Test
+    void searchVector_IsMaintainedOnInsertAndUpdate() {
+        Long matches = jdbc.queryForObject(
+                "SELECT count(*) FROM post WHERE search_vector @@ plainto_tsquery('simple', 'needle')", Long.class);
+        assertThat(matches).isEqualTo(SEEDED_POSTS / 1000);
+
+        jdbc.update("UPDATE post SET title = 'haystack' WHERE id = 1");
+        Long updated = jdbc.queryForObject(
+                "SELECT count(*) FROM post WHERE search_vector @@ plainto_tsquery('simple', 'haystack')", Long.class);
+        assertThat(updated).isEqualTo(1L);
+    }
+
+    @Test
+    void fullTextSearch_UsesSearchVectorIndex() {
+        String plan = explain(PostRepository.FULL_TEXT_SEARCH_QUERY, searchParams("needle", null, 1));
+
+        assertThat(plan).contains("post_search_vector_idx");
+    }
+
+    @Test
+    void fullTextSearch_MatchesAnyOrAllTags() {
+        // tag 6 sits on posts with id % 200 in {4, 5}; tag 7 on {5, 6}; both only on id % 200 == 5.
+        Page<PostSummaryRow> any = postRepo.fullTextSearch(null, "6,7", 1, PageRequest.of(0, 10));
+        Page<PostSummaryRow> all = postRepo.fullTextSearch(null, "6,7", 2, PageRequest.of(0, 10));
+
+        assertThat(any.getTotalElements()).isEqualTo(3L * SEEDED_POSTS / SEEDED_TAGS);
+        assertThat(all.getTotalElements()).isEqualTo(SEEDED_POSTS / SEEDED_TAGS);
+        assertThat(all.getContent()).allMatch(p -> p.getId() % SEEDED_TAGS == 5);
+    }
+
+    @Test
+    void fullTextSearch_ReturnsSummariesInOneStatementPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : new int[] { 10, 100, 1000 }) {
+            statistics.clear();
+            Slice<PostSummaryRow> slice = postRepo.fullTextSearchSlice(null, null, 1, PageRequest.of(0, size));
+
+            assertThat(slice.getContent()).hasSize(size)
+                    .allMatch(row -> row.getTagNames() != null && row.getTagNames().split(",").length == 2);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+        PostSummaryRow row = postRepo.findSummariesByIdIn(List.of(5L)).get(0);
+        assertThat(row.getTitle()).isEqualTo("question number 5");
+        assertThat(row.getTagNames()).isEqualTo("tag6,tag7");
+    }
+
+    @Test
+    void fullTextSearch_TagFilterNoLongerDeduplicatesWidePostRows() {
+        MapSqlParameterSource legacyParams = new MapSqlParameterSource()
+                .addValue("query", null, Types.VARCHAR)
+                .addValue("tags", "tag6,tag7", Types.VARCHAR);
+        String before = explain(LEGACY_TAG_SEARCH_QUERY, legacyParams);
+        String after = explain(PostRepository.FULL_TEXT_SEARCH_QUERY, searchParams(null, "6,7", 1));
+
+        // Before: DISTINCT over p.* sorts or hashes on every post column, bodies included.
+        assertThat(keyLines(before)).anyMatch(line -> line.contains("p.body"));
+        // After: the only grouping left is on post_tags.post_id, found through the (tag_id, post_id) index.
+        assertThat(keyLines(after)).noneMatch(line -> line.contains("p.body"));
+        assertThat(after).contains("post_tags_tag_id_post_id_idx");
+    }
+
+    @Test
+    void findTopRanked_MarksSnippetMatchesWithoutHtml() {
+        jdbc.update("""
+                INSERT INTO post (id, title, body, created_at)
+                VALUES (?, 'injected', '<script>alert(1)</script> a haystack <img src=x onerror=alert(2)', now())
+                """, SEEDED_POSTS + 1);
+
+        List<RankedPostRow> rows = postRepo.findTopRanked("haystack", null, 1, true, 1, 0);
+        String snippet = SnippetBuilder.markup(rows.get(0).getSnippet());
+
+        assertThat(rows.get(0).getSnippet()).doesNotContain("<b>");
+        assertThat(snippet).contains("<b>haystack</b>").contains("&lt;img")
+                .doesNotContain("<script").doesNotContain("<img");
+    }
+
+    @Test
+    void tagPostCounts_ReconcileRepairsOnlyDriftedCounters() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // The seed writes post_tags directly, so every counter starts out wrong.
+        assertThat(tx.execute(status -> tagRepo.reconcilePostCounts())).isEqualTo(SEEDED_TAGS);
+        assertThat(jdbc.queryForObject("SELECT post_count FROM tag WHERE id = 6", Long.class))
+                .isEqualTo(2L * SEEDED_POSTS / SEEDED_TAGS);
+
+        tx.executeWithoutResult(status -> tagRepo.adjustPostCount(List.of(6L, 7L), 1));
+        assertThat(jdbc.queryForObject("SELECT post_count FROM tag WHERE id = 7", Long.class))
+                .isEqualTo(2L * SEEDED_POSTS / SEEDED_TAGS + 1);
+        assertThat(tx.execute(status -> tagRepo.reconcilePostCounts())).isEqualTo(2);
+    }
+
+    @Test
+    void tagPostCounts_ReconcileLeavesOutSoftDeletedPosts() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.execute(status -> tagRepo.reconcilePostCounts());
+
+        // What deleting post 5 does: a tombstone that keeps its post_tags rows, and its tags counted down.
+        jdbc.update("UPDATE post SET deleted_at = now() WHERE id = 5");
+        tx.executeWithoutResult(status -> tagRepo.adjustPostCount(List.of(6L, 7L), -1));
+
+        assertThat(tx.execute(status -> tagRepo.reconcilePostCounts())).isZero();
+        assertThat(jdbc.queryForObject("SELECT post_count FROM tag WHERE id = 6", Long.class))
+                .isEqualTo(2L * SEEDED_POSTS / SEEDED_TAGS - 1);
+    }
+
+    private MapSqlParameterSource searchParams(String query, String tagIds, int requiredTagMatches) {
+        return new MapSqlParameterSource()
+                .addValue("query", query, Types.VARCHAR)
+                .addValue("tagIds", tagIds, Types.VARCHAR)
+                .addValue("requiredTagMatches", requiredTagMatches, Types.INTEGER);
+    }
+
+    private String explain(String sql, MapSqlParameterSource params) {
+        List<String> plan = namedJdbc.queryForList("EXPLAIN (VERBOSE) " + sql, params, String.class);
+        return String.join("\n", plan);
+    }
+
+    private List<String> keyLines(String plan) {
+        return plan.lines()
+                .filter(line -> line.contains("Sort Key:") || line.contains("Group Key:"))
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.echovenancio.ministack.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Reply;
+
+/**
+ * Statements per reply saved through the entity, with JDBC batching switched
+ * off for the session (one INSERT each, as before batching was configured) and
+ * with the configured batch size. Ids come from pooled-lo blocks either way.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ReplyInsertBatchingTest {
+
+    private static final int REPLIES = 2_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ReplyRepository replyRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE post_tags, reply, users_posts, post, tag, users");
+        jdbc.update("INSERT INTO post (id, title, body, created_at) VALUES (1, 'thread', 'body', now())");
+    }
+
+    @Test
+    void batchedInserts_CutStatementsPerReply() {
+        double unbatched = statementsPerReply(1);
+        double batched = statementsPerReply(null);
+
+        // Unbatched: one INSERT per reply plus a sequence call per 200 ids.
+        assertThat(unbatched).isGreaterThanOrEqualTo(1.0);
+        // Batched: one statement per 50 replies plus the same sequence calls.
+        assertThat(batched).isLessThan(0.05);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM reply", Long.class)).isEqualTo(2L * REPLIES);
+    }
+
+    /** {@code batchSize} overrides the configured JDBC batch size for the session; null keeps it. */
+    private double statementsPerReply(Integer batchSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        tx.executeWithoutResult(status -> {
+            if (batchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            }
+            Post post = entityManager.getReference(Post.class, 1L);
+            List<Reply> replies = new ArrayList<>(REPLIES);
+            for (int i = 0; i < REPLIES; i++) {
+                replies.add(new Reply("Reply " + i, post, null, null));
+            }
+            replyRepo.saveAll(replies);
+        });
+        return (double) statistics.getPrepareStatementCount() / REPLIES;
+    }
+}
@@ -0,0 +1,255 @@
+package com.echovenancio.ministack.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.echovenancio.ministack.entity.Reply;
+import com.echovenancio.ministack.models.ReplyDto;
+import com.echovenancio.ministack.utils.Cursor;
+import com.echovenancio.ministack.utils.ReplyPath;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ReplyRepositoryTest {
+
+    private static final int TOP_LEVEL_REPLIES = 2_000;
+
+    private static final int CHILDREN_PER_REPLY = 5;
+
+    private static final int CHILDREN = TOP_LEVEL_REPLIES * CHILDREN_PER_REPLY;
+
+    private static final int AUTHORS = 10;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private ReplyRepository replyRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE post_tags, reply, users_posts, post, tag, users");
+        jdbc.update("INSERT INTO post (id, title, body, created_at) VALUES (1, 'thread', 'body', now())");
+        // Top-level replies 1..2000, five children each, and one grandchild under every child.
+        jdbc.update("""
+                INSERT INTO reply (id, body, post_id, created_at, path)
+                SELECT g, 'top ' || g, 1, now(), '' FROM generate_series(1, ?) g
+                """, TOP_LEVEL_REPLIES);
+        jdbc.update("""
+                INSERT INTO reply (id, body, post_id, parent_reply_id, created_at, path)
+                SELECT ? + g, 'child ' || g, 1, (g - 1) / ? + 1, now(), lpad(((g - 1) / ? + 1)::text, 19, '0') || '/'
+                FROM generate_series(1, ?) g
+                """, TOP_LEVEL_REPLIES, CHILDREN_PER_REPLY, CHILDREN_PER_REPLY, CHILDREN);
+        jdbc.update("""
+                INSERT INTO reply (id, body, post_id, parent_reply_id, created_at, path)
+                SELECT id + ?, 'grandchild ' || id, 1, id, now(), path || lpad(id::text, 19, '0') || '/'
+                FROM reply WHERE parent_reply_id IS NOT NULL
+                """, CHILDREN);
+        jdbc.update("""
+                INSERT INTO users (id, email, password, username)
+                SELECT g, 'user' || g || '@example.com', 'x', 'user' || g FROM generate_series(1, ?) g
+                """, AUTHORS);
+        jdbc.update("UPDATE reply SET user_id = id % ? + 1", AUTHORS);
+        jdbc.execute("ANALYZE reply");
+    }
+
+    @Test
+    void findDescendants_ReturnsSubtreeUpToDepth() {
+        Reply root = replyRepo.findById(1L).orElseThrow();
+        String prefix = ReplyPath.subtree(root);
+        String to = ReplyPath.upperBound(prefix);
+
+        Page<ReplyDto> all = replyRepo.findDescendants(prefix, to, Integer.MAX_VALUE, PageRequest.of(0, 50));
+        Page<ReplyDto> children = replyRepo.findDescendants(prefix, to, ReplyPath.maxLength(prefix, 1),
+                PageRequest.of(0, 50));
+
+        assertThat(all.getTotalElements()).isEqualTo(2L * CHILDREN_PER_REPLY);
+        assertThat(children.getContent()).extracting(ReplyDto::getId)
+                .containsExactly(2001L, 2002L, 2003L, 2004L, 2005L);
+        assertThat(ReplyPath.rootId(replyRepo.findById(12_001L).orElseThrow())).isEqualTo(1L);
+    }
+
+    @Test
+    void reconcileCounts_RepairsSeededCounters() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // The seed writes replies directly, so every counter that should be non-zero starts out wrong.
+        assertThat(tx.execute(status -> postRepo.reconcileReplyCounts())).isEqualTo(1);
+        assertThat(tx.execute(status -> replyRepo.reconcileChildCounts())).isEqualTo(TOP_LEVEL_REPLIES + CHILDREN);
+        assertThat(jdbc.queryForObject("SELECT reply_count FROM post WHERE id = 1", Long.class))
+                .isEqualTo((long) TOP_LEVEL_REPLIES + 2 * CHILDREN);
+        assertThat(jdbc.queryForObject("SELECT child_count FROM reply WHERE id = 1", Long.class))
+                .isEqualTo(CHILDREN_PER_REPLY);
+
+        tx.executeWithoutResult(status -> {
+            postRepo.adjustReplyCount(1L, 1);
+            replyRepo.adjustChildCount(1L, -1);
+        });
+        assertThat(jdbc.queryForObject("SELECT child_count FROM reply WHERE id = 1", Long.class))
+                .isEqualTo(CHILDREN_PER_REPLY - 1);
+        assertThat(tx.execute(status -> postRepo.reconcileReplyCounts() + replyRepo.reconcileChildCounts()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void replyListings_RunOneQueryPlusCountPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : new int[] { 10, 100, 1000 }) {
+            statistics.clear();
+            Page<ReplyDto> page = replyRepo.findByPostIdAndParentReplyIsNull(1L, PageRequest.of(0, size));
+
+            assertThat(page.getContent()).hasSize(size).allMatch(reply -> reply.getUsername() != null);
+            assertThat(page.getTotalElements()).isEqualTo(TOP_LEVEL_REPLIES);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        }
+        for (int size : new int[] { 2, 4 }) {
+            statistics.clear();
+            Page<ReplyDto> page = replyRepo.findByPostIdAndParentReplyId(1L, 1L, PageRequest.of(0, size));
+
+            assertThat(page.getContent()).hasSize(size).allMatch(reply -> reply.getUsername() != null);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void keysetPages_WalkRepliesInCreationOrderWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        Cursor cursor = Cursor.origin();
+        while (true) {
+            List<ReplyDto> page = replyRepo.findChildrenAfter(1L, 1L, cursor.createdAt(), cursor.id(),
+                    PageRequest.of(0, 2));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(reply -> seen.add(reply.getId()));
+            ReplyDto last = page.get(page.size() - 1);
+            cursor = new Cursor(LocalDateTime.parse(last.getCreatedAt()), last.getId());
+        }
+        assertThat(seen).containsExactly(2001L, 2002L, 2003L, 2004L, 2005L);
+
+        // Top-level replies share one created_at, so the id alone orders them.
+        LocalDateTime createdAt = jdbc.queryForObject("SELECT created_at FROM reply WHERE id = 1", LocalDateTime.class);
+        List<ReplyDto> late = replyRepo.findTopLevelAfter(1L, createdAt, 1_990L, PageRequest.of(0, 20));
+        assertThat(late).extracting(ReplyDto::getId).startsWith(1_991L).hasSize(10);
+    }
+
+    @Test
+    void keysetPage_SeeksThroughListingIndex() {
+        List<String> plan = jdbc.queryForList("""
+                EXPLAIN SELECT id FROM reply
+                WHERE post_id = 1 AND parent_reply_id IS NULL AND (created_at, id) > (now(), 1990)
+                ORDER BY created_at, id LIMIT 20
+                """, String.class);
+
+        assertThat(String.join("\n", plan)).contains("reply_post_id_parent_reply_id_created_at_id_idx");
+    }
+
+    @Test
+    void softDeleteByPost_TombstonesEveryReplyInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        statistics.clear();
+
+        int deleted = tx.execute(status -> replyRepo.softDeleteByPost(1L));
+
+        assertThat(deleted).isEqualTo(TOP_LEVEL_REPLIES + 2 * CHILDREN);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM reply WHERE deleted_at IS NULL", Long.class))
+                .isZero();
+        assertThat(replyRepo.findById(1L)).isEmpty();
+        assertThat(replyRepo.findByPostIdAndParentReplyIsNull(1L, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void subtreeRange_UsesPathIndex() {
+        String prefix = ReplyPath.segment(1);
+        List<String> plan = jdbc.queryForList("EXPLAIN SELECT id FROM reply WHERE path >= ? AND path < ? AND deleted_at IS NULL",
+                String.class, prefix, ReplyPath.upperBound(prefix));
+
+        assertThat(String.join("\n", plan)).contains("reply_path_idx");
+    }
+
+    @Test
+    void findThread_KeepsTombstonesOnlyAsPlaceholders() {
+        jdbc.update("UPDATE reply SET deleted_at = now() WHERE id IN (1, 2001)");
+
+        List<ThreadReplyRow> rows = replyRepo.findThread(1L, 3, Integer.MAX_VALUE);
+
+        assertThat(rows).hasSize(TOP_LEVEL_REPLIES + 2 * CHILDREN);
+        ThreadReplyRow deleted = rows.stream().filter(row -> row.getId() == 2001L).findFirst().orElseThrow();
+        assertThat(deleted.getDeleted()).isTrue();
+        assertThat(deleted.getBody()).isNull();
+        assertThat(deleted.getUsername()).isNull();
+        assertThat(rows).filteredOn(row -> row.getId() == 12_001L).singleElement()
+                .satisfies(row -> assertThat(row.getDeleted()).isFalse());
+    }
+
+    @Test
+    void purgeTombstones_RemovesOldLeavesFirst() {
+        jdbc.update("UPDATE reply SET deleted_at = now() - interval '30 days' WHERE id IN (1, 2001, 12001)");
+        jdbc.update("UPDATE reply SET deleted_at = now() WHERE id = 12002");
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // 2001 still has its grandchild, and reply 1 live children, until a later batch.
+        assertThat(tx.execute(status -> replyRepo.purgeTombstones(cutoff, 500))).isEqualTo(1);
+        assertThat(tx.execute(status -> replyRepo.purgeTombstones(cutoff, 500))).isEqualTo(1);
+        assertThat(tx.execute(status -> replyRepo.purgeTombstones(cutoff, 500))).isZero();
+        assertThat(jdbc.queryForList("SELECT id FROM reply WHERE deleted_at IS NOT NULL", Long.class))
+                .containsExactlyInAnyOrder(1L, 12_002L);
+    }
+
+    @Test
+    void purgeTombstones_RemovesPostOnceItsRepliesAreGone() {
+        jdbc.update("UPDATE post SET deleted_at = now() - interval '30 days' WHERE id = 1");
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        assertThat(postRepo.findById(1L)).isEmpty();
+        assertThat(tx.execute(status -> postRepo.purgeTombstones(cutoff, 500))).isZero();
+
+        jdbc.execute("TRUNCATE reply");
+        assertThat(tx.execute(status -> postRepo.purgeTombstones(cutoff, 500))).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM post", Long.class)).isZero();
+    }
+}
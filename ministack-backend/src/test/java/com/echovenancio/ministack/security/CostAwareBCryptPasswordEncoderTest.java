@@ -0,0 +1,21 @@
+package com.echovenancio.ministack.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CostAwareBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_WheneverStoredCostDiffers() {
+        String cost4 = new CostAwareBCryptPasswordEncoder(4).encode("secret");
+        String cost6 = new CostAwareBCryptPasswordEncoder(6).encode("secret");
+        CostAwareBCryptPasswordEncoder encoder = new CostAwareBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(cost4)).isTrue();
+        assertThat(encoder.upgradeEncoding(cost6)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        // Old hashes still verify until they are replaced.
+        assertThat(encoder.matches("secret", cost4)).isTrue();
+    }
+}
@@ -0,0 +1,80 @@
+package com.echovenancio.ministack.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.echovenancio.ministack.models.AuthenticatedUser;
+import com.echovenancio.ministack.service.MyUserDetailsService;
+
+class JWTFilterTest {
+
+    private static final AuthenticatedUser USER = AuthenticatedUser.withUserRole(1L, "user", "user@example.com");
+
+    private final JWTUtil jwtUtil = new JWTUtil("test-secret", 100, Duration.ofMinutes(10), Duration.ofHours(1));
+
+    private MyUserDetailsService userDetailsService;
+    private JWTFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(MyUserDetailsService.class);
+        filter = new JWTFilter(userDetailsService, jwtUtil);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse send(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void validToken_AuthenticatesTheCurrentAccount() throws Exception {
+        when(userDetailsService.loadPrincipal("user@example.com")).thenReturn(USER);
+
+        send(jwtUtil.generateToken(USER));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isEqualTo(USER);
+    }
+
+    @Test
+    void deletedUser_RequestContinuesUnauthenticated() throws Exception {
+        when(userDetailsService.loadPrincipal("user@example.com"))
+                .thenThrow(new UsernameNotFoundException("User not found with email: user@example.com"));
+
+        MockHttpServletResponse response = send(jwtUtil.generateToken(USER));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void tokenOfEarlierAccountWithSameEmail_IsNotAuthenticated() throws Exception {
+        when(userDetailsService.loadPrincipal("user@example.com"))
+                .thenReturn(AuthenticatedUser.withUserRole(2L, "newuser", "user@example.com"));
+
+        send(jwtUtil.generateToken(USER));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
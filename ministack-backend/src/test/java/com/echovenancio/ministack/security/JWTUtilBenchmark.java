@@ -0,0 +1,69 @@
+package com.echovenancio.ministack.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.echovenancio.ministack.models.AuthenticatedUser;
+
+/**
+ * Token verification throughput: the verifier rebuilt per call (as JWTUtil
+ * used to), one shared verifier, and JWTUtil with its verified-token cache.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTUtilBenchmark {
+
+    private static final AuthenticatedUser USER = AuthenticatedUser.withUserRole(1L, "user", "user@example.com");
+
+    private static final String SECRET = "benchmark-secret";
+
+    private JWTUtil jwtUtil;
+    private JWTVerifier sharedVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JWTUtil(SECRET, 10_000, Duration.ofMinutes(10), Duration.ofHours(24));
+        sharedVerifier = JWT.require(Algorithm.HMAC256(SECRET)).withIssuer("Ministack").build();
+        token = jwtUtil.generateToken(USER);
+    }
+
+    @Benchmark
+    public String rebuiltVerifier() {
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .withIssuer("Ministack")
+                .build()
+                .verify(token)
+                .getClaim("email")
+                .asString();
+    }
+
+    @Benchmark
+    public String sharedVerifier() {
+        return sharedVerifier.verify(token).getClaim("email").asString();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return jwtUtil.validateTokenAndRetrieveSubject(token);
+    }
+}
@@ -0,0 +1,89 @@
+package com.echovenancio.ministack.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.echovenancio.ministack.models.AuthenticatedUser;
+
+class JWTUtilTest {
+
+    private static final AuthenticatedUser USER = AuthenticatedUser.withUserRole(1L, "user", "user@example.com");
+
+    private static final String SECRET = "test-secret";
+
+    private final JWTUtil jwtUtil = new JWTUtil(SECRET, 100, Duration.ofMinutes(10), Duration.ofHours(1));
+
+    @Test
+    void validateToken_RepeatTokensSkipVerification() {
+        String token = jwtUtil.generateToken(USER);
+
+        assertThat(jwtUtil.validateTokenAndRetrieveSubject(token)).isEqualTo("user@example.com");
+        assertThat(jwtUtil.validateTokenAndRetrieveSubject(token)).isEqualTo("user@example.com");
+        assertThat(jwtUtil.tokenCacheStats().hits()).isEqualTo(1);
+        assertThat(jwtUtil.tokenCacheStats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void generateToken_ExpiresAfterTokenTtl() {
+        Instant expiresAt = jwtUtil.verify(jwtUtil.generateToken(USER)).getExpiresAtAsInstant();
+
+        assertThat(expiresAt).isBetween(Instant.now().plus(Duration.ofMinutes(59)),
+                Instant.now().plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void verify_RejectsTokensWithoutExpiry() {
+        String legacy = JWT.create()
+                .withSubject("User Details")
+                .withClaim("email", "user@example.com")
+                .withClaim("uid", 1L)
+                .withIssuer("Ministack")
+                .sign(Algorithm.HMAC256(SECRET));
+
+        assertThatThrownBy(() -> jwtUtil.verify(legacy)).isInstanceOf(JWTVerificationException.class);
+    }
+
+    @Test
+    void issuedTo_MatchesOnlyTheAccountTheTokenWasIssuedFor() {
+        DecodedJWT token = jwtUtil.verify(jwtUtil.generateToken(USER));
+
+        assertThat(JWTUtil.issuedTo(token, USER)).isTrue();
+        assertThat(JWTUtil.issuedTo(token, AuthenticatedUser.withUserRole(2L, "user", "user@example.com")))
+                .isFalse();
+    }
+
+    @Test
+    void validateToken_RejectsForeignSignatureEvenAfterGenuineTokenIsCached() {
+        jwtUtil.validateTokenAndRetrieveSubject(jwtUtil.generateToken(USER));
+        String forged = JWT.create()
+                .withClaim("email", "user@example.com")
+                .withIssuer("Ministack")
+                .withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(Algorithm.HMAC256("other-secret"));
+
+        assertThatThrownBy(() -> jwtUtil.validateTokenAndRetrieveSubject(forged))
+                .isInstanceOf(JWTVerificationException.class);
+    }
+
+    @Test
+    void validateToken_ExpiredTokensAreRejectedAndNotCached() {
+        String expired = JWT.create()
+                .withClaim("email", "user@example.com")
+                .withIssuer("Ministack")
+                .withExpiresAt(Instant.now().minusSeconds(60))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        assertThatThrownBy(() -> jwtUtil.validateTokenAndRetrieveSubject(expired))
+                .isInstanceOf(JWTVerificationException.class);
+        assertThat(jwtUtil.tokenCacheStats().size()).isZero();
+    }
+}
@@ -0,0 +1,66 @@
+package com.echovenancio.ministack.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.echovenancio.ministack.models.AuthenticatedUser;
+import com.echovenancio.ministack.utils.TokenBucketLimiter;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new TokenBucketLimiter(2, 2, 4), new TokenBucketLimiter(2, 2, 4));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void login_RejectedWith429AndRetryAfterOnceBucketIsEmpty() throws Exception {
+        assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send("POST", "/api/auth/login", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(send("POST", "/api/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void writes_KeyedByUserNotAddress() throws Exception {
+        AuthenticatedUser user = AuthenticatedUser.withUserRole(1L, "user", "user@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
+
+        send("POST", "/api/posts", "10.0.0.1");
+        send("PUT", "/api/posts/1", "10.0.0.2");
+
+        assertThat(send("DELETE", "/api/posts/1/replies/2", "10.0.0.3").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void reads_AreNeverLimited() throws Exception {
+        for (String uri : List.of("/api/posts", "/api/posts/1", "/api/posts", "/api/posts/1/thread")) {
+            assertThat(send("GET", uri, "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.echovenancio.ministack.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.exceptions.UnsupportedSortException;
+import com.echovenancio.ministack.models.PostDto;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TagMatchMode;
+import com.echovenancio.ministack.repository.PostRepository;
+
+class InMemoryPostSearchEngineTest {
+
+    private final User author = new User(1L, "testuser", "user@example.com", "encoded_password");
+    private final Tag java = new Tag(10L, "java");
+    private final Tag spring = new Tag(11L, "spring");
+
+    private PostRepository postRepo;
+    private InMemoryPostSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        postRepo = mock(PostRepository.class);
+        engine = new InMemoryPostSearchEngine(postRepo);
+        engine.index(post(1L, "Streams in Java", "How do collectors work?", java));
+        engine.index(post(2L, "Spring Boot startup", "Why is my Java context slow?", java, spring));
+        engine.index(post(3L, "Spring security", "Configuring a JWT filter", spring));
+    }
+
+    @Test
+    void search_MatchesEveryQueryWordAcrossTitleAndBody() {
+        assertThat(ids(search("java", List.of(), TagMatchMode.ANY))).containsExactly(2L, 1L);
+        assertThat(ids(search("spring java", List.of(), TagMatchMode.ANY))).containsExactly(2L);
+        assertThat(ids(search("JWT, filter!", List.of(), TagMatchMode.ANY))).containsExactly(3L);
+        assertThat(ids(search("kotlin", List.of(), TagMatchMode.ANY))).isEmpty();
+    }
+
+    @Test
+    void search_FiltersByAnyOrAllTags() {
+        assertThat(ids(search(null, List.of(10L, 11L), TagMatchMode.ANY))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(search(null, List.of(10L, 11L), TagMatchMode.ALL))).containsExactly(2L);
+        assertThat(ids(search("spring", List.of(10L), TagMatchMode.ANY))).containsExactly(2L);
+    }
+
+    @Test
+    void search_PagesNewestFirstWithTotal() {
+        Page<PostDto> firstPage = engine.search(new PostSearchFilter(null, List.of(), TagMatchMode.ANY),
+                PageRequest.of(0, 2));
+        Page<PostDto> secondPage = engine.search(new PostSearchFilter(null, List.of(), TagMatchMode.ANY),
+                PageRequest.of(1, 2));
+
+        assertThat(ids(firstPage)).containsExactly(3L, 2L);
+        assertThat(ids(secondPage)).containsExactly(1L);
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void search_OrdersByCreationTimeNotById() {
+        InMemoryPostSearchEngine dated = new InMemoryPostSearchEngine(postRepo);
+        dated.index(post(7L, "Recent", "body", LocalDateTime.of(2025, 1, 1, 0, 0)));
+        dated.index(post(8L, "Imported", "body", LocalDateTime.of(2020, 1, 1, 0, 0)));
+        dated.index(post(9L, "Older", "body", LocalDateTime.of(2023, 1, 1, 0, 0)));
+        PostSearchFilter all = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
+
+        assertThat(ids(dated.search(all, PageRequest.of(0, 10)))).containsExactly(7L, 9L, 8L);
+        assertThat(ids(dated.search(all, PageRequest.of(0, 2, Sort.by("createdAt"))))).containsExactly(8L, 9L);
+        assertThat(ids(dated.search(all, PageRequest.of(1, 2, Sort.by("createdAt"))))).containsExactly(7L);
+        assertThatThrownBy(() -> dated.search(all, PageRequest.of(0, 2, Sort.by("title"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    void index_ReplacesPreviousVersionOfPost() {
+        engine.index(post(1L, "Streams in Kotlin", "Sequences instead", spring));
+
+        assertThat(ids(search("java", List.of(), TagMatchMode.ANY))).containsExactly(2L);
+        assertThat(ids(search("kotlin", List.of(11L), TagMatchMode.ANY))).containsExactly(1L);
+        assertThat(ids(search(null, List.of(10L), TagMatchMode.ANY))).containsExactly(2L);
+    }
+
+    @Test
+    void remove_DropsPostFromAllPostings() {
+        engine.remove(2L);
+
+        assertThat(ids(search("java", List.of(), TagMatchMode.ANY))).containsExactly(1L);
+        assertThat(ids(search(null, List.of(10L, 11L), TagMatchMode.ALL))).isEmpty();
+        assertThat(search(null, List.of(), TagMatchMode.ANY).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void adjustReplies_UpdatesListedReplyCount() {
+        PostDto before = search("collectors", List.of(), TagMatchMode.ANY).getContent().get(0);
+
+        engine.adjustReplies(1L, 2);
+        engine.adjustReplies(1L, -1);
+        engine.adjustReplies(99L, 1);
+
+        assertThat(search("collectors", List.of(), TagMatchMode.ANY).getContent().get(0).getReplyCount())
+                .isEqualTo(1);
+        assertThat(before.getReplyCount()).isZero();
+    }
+
+    @Test
+    void searchByRelevance_RanksTitleMatchesAboveBodyMatches() {
+        PostSearchFilter filter = new PostSearchFilter("java", List.of(), TagMatchMode.ANY);
+
+        Slice<PostDto> first = engine.searchByRelevance(filter, PageRequest.of(0, 1), true);
+        Slice<PostDto> second = engine.searchByRelevance(filter, PageRequest.of(1, 1), false);
+
+        assertThat(ids(first)).containsExactly(1L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent().get(0).getSnippet()).isEqualTo("How do collectors work");
+        assertThat(ids(second)).containsExactly(2L);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent().get(0).getSnippet()).isNull();
+    }
+
+    @Test
+    void searchByRelevance_HighlightsMatchesInSnippet() {
+        Slice<PostDto> result = engine.searchByRelevance(
+                new PostSearchFilter("java", List.of(), TagMatchMode.ANY), PageRequest.of(1, 1), true);
+
+        assertThat(result.getContent().get(0).getSnippet()).isEqualTo("Why is my <b>Java</b> context slow");
+    }
+
+    @Test
+    void searchByRelevance_EscapesBodyInSnippet() {
+        engine.index(post(4L, "Injected", "<script>alert('kotlin')</script>", spring));
+
+        Slice<PostDto> result = engine.searchByRelevance(
+                new PostSearchFilter("kotlin", List.of(), TagMatchMode.ANY), PageRequest.of(0, 1), true);
+
+        assertThat(result.getContent().get(0).getSnippet())
+                .isEqualTo("script&gt;alert(&#39;<b>kotlin</b>&#39;)&lt;/script")
+                .doesNotContain("<script");
+    }
+
+    @Test
+    void rebuild_LoadsPostsFromRepositoryInBatches() {
+        PostRepository repo = mock(PostRepository.class);
+        when(repo.findIdsAfter(eq(Long.MIN_VALUE), any(Pageable.class))).thenReturn(List.of(5L));
+        when(repo.findByIdIn(anyCollection())).thenReturn(List.of(post(5L, "Loaded at startup", "From the DB", java)));
+        InMemoryPostSearchEngine rebuilt = new InMemoryPostSearchEngine(repo);
+
+        rebuilt.rebuild();
+
+        Page<PostDto> result = rebuilt.search(new PostSearchFilter("startup", List.of(), TagMatchMode.ANY),
+                PageRequest.of(0, 10));
+        assertThat(ids(result)).containsExactly(5L);
+    }
+
+    private Page<PostDto> search(String query, List<Long> tagIds, TagMatchMode mode) {
+        return engine.search(new PostSearchFilter(query, tagIds, mode), PageRequest.of(0, 10));
+    }
+
+    private List<Long> ids(Slice<PostDto> page) {
+        return page.getContent().stream().map(PostDto::getId).toList();
+    }
+
+    private Post post(Long id, String title, String body, Tag... tags) {
+        return new Post(id, title, body, author, new HashSet<>(Set.of(tags)), new HashSet<>());
+    }
+
+    private Post post(Long id, String title, String body, LocalDateTime createdAt) {
+        Post post = post(id, title, body);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
@@ -0,0 +1,78 @@
+package com.echovenancio.ministack.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.AuthenticatedUser;
+import com.echovenancio.ministack.repository.UserRepository;
+
+class MyUserDetailsServiceTest {
+
+    private UserRepository userRepo;
+    private MyUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(UserRepository.class);
+        when(userRepo.findByEmail("user@example.com"))
+                .thenReturn(Optional.of(new User(1L, "user", "user@example.com", "hash")));
+        service = new MyUserDetailsService(userRepo, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadPrincipal_RepeatRequestsCostNoQuery() {
+        AuthenticatedUser first = service.loadPrincipal("user@example.com");
+        AuthenticatedUser second = service.loadPrincipal("user@example.com");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(second.id()).isEqualTo(1L);
+        assertThat(second.authorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userRepo, times(1)).findByEmail("user@example.com");
+        assertThat(service.principalCacheStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void loadPrincipal_EvictionForcesReload() {
+        service.loadPrincipal("user@example.com");
+        service.evictPrincipal("user@example.com");
+        service.loadPrincipal("user@example.com");
+
+        verify(userRepo, times(2)).findByEmail("user@example.com");
+    }
+
+    @Test
+    void loadPrincipal_UnknownUsersAreNotCached() {
+        when(userRepo.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.loadPrincipal("ghost@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> service.loadPrincipal("ghost@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepo, times(2)).findByEmail("ghost@example.com");
+        assertThat(service.principalCacheStats().size()).isZero();
+    }
+
+    @Test
+    void updatePassword_StoresTheUpgradedHash() {
+        UserDetails before = service.loadUserByUsername("user@example.com");
+
+        UserDetails after = service.updatePassword(before, "new-hash");
+
+        verify(userRepo).updatePassword("user@example.com", "new-hash");
+        assertThat(after.getPassword()).isEqualTo("new-hash");
+        assertThat(after.getUsername()).isEqualTo("user@example.com");
+    }
+}
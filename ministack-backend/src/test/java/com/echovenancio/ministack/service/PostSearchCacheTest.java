@@ -0,0 +1,78 @@
+package com.echovenancio.ministack.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.models.PostSearchFilter;
+import com.echovenancio.ministack.models.TagMatchMode;
+
+class PostSearchCacheTest {
+
+    private final PostSearchCache cache = new PostSearchCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_SharesEntriesAcrossEquivalentFilters() {
+        load(new PostSearchFilter("Spring  Boot", List.of(11L, 10L), TagMatchMode.ALL));
+        load(new PostSearchFilter("spring boot", List.of(10L, 11L), TagMatchMode.ALL));
+        load(new PostSearchFilter(null, List.of(10L), TagMatchMode.ALL));
+        load(new PostSearchFilter(null, List.of(10L), TagMatchMode.ANY));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats().hits()).isEqualTo(2);
+    }
+
+    @Test
+    void evictFor_DropsOnlyListingsThePostCanAppearIn() {
+        PostSearchFilter untagged = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
+        PostSearchFilter anyJavaOrGo = new PostSearchFilter(null, List.of(10L, 12L), TagMatchMode.ANY);
+        PostSearchFilter allJavaAndSpring = new PostSearchFilter(null, List.of(10L, 11L), TagMatchMode.ALL);
+        PostSearchFilter allJavaAndGo = new PostSearchFilter(null, List.of(10L, 12L), TagMatchMode.ALL);
+        PostSearchFilter rust = new PostSearchFilter(null, List.of(13L), TagMatchMode.ANY);
+        for (PostSearchFilter filter : List.of(untagged, anyJavaOrGo, allJavaAndSpring, allJavaAndGo, rust)) {
+            load(filter);
+        }
+
+        int evicted = cache.evictFor(post(new Tag(10L, "java"), new Tag(11L, "spring")));
+
+        assertThat(evicted).isEqualTo(3);
+        loads.set(0);
+        load(allJavaAndGo);
+        load(rust);
+        assertThat(loads.get()).isZero();
+    }
+
+    @Test
+    void get_DoesNotCacheLoadThatRacedWithEviction() {
+        PostSearchFilter filter = new PostSearchFilter(null, List.of(), TagMatchMode.ANY);
+        PostSearchCache.Key key = PostSearchCache.Key.page(filter, "exact", PageRequest.of(0, 20));
+
+        cache.get(key, () -> {
+            cache.evictFor(post());
+            return "stale";
+        });
+
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    private void load(PostSearchFilter filter) {
+        cache.get(PostSearchCache.Key.page(filter, "exact", PageRequest.of(0, 20)), () -> {
+            loads.incrementAndGet();
+            return "page";
+        });
+    }
+
+    private Post post(Tag... tags) {
+        return new Post(1L, "title", "body", null, new HashSet<>(Set.of(tags)), new HashSet<>());
+    }
+}
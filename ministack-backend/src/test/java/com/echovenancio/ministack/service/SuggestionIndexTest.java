@@ -0,0 +1,150 @@
+package com.echovenancio.ministack.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.echovenancio.ministack.entity.Post;
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.entity.User;
+import com.echovenancio.ministack.models.Suggestion;
+import com.echovenancio.ministack.repository.PostReplyCount;
+import com.echovenancio.ministack.repository.PostRepository;
+import com.echovenancio.ministack.repository.PostTitleRow;
+import com.echovenancio.ministack.repository.ReplyRepository;
+import com.echovenancio.ministack.repository.TagRepository;
+import com.echovenancio.ministack.repository.TagUsageRow;
+
+class SuggestionIndexTest {
+
+    private record TagUsage(Long getId, String getName, Long getPosts) implements TagUsageRow {
+    }
+
+    private record PostTitle(Long getId, String getTitle) implements PostTitleRow {
+    }
+
+    private record ReplyCount(Long getPostId, Long getReplies) implements PostReplyCount {
+    }
+
+    private final User author = new User(1L, "testuser", "user@example.com", "encoded_password");
+    private final Tag spring = new Tag(11L, "spring");
+
+    private TagRepository tagRepo;
+    private PostRepository postRepo;
+    private ReplyRepository replyRepo;
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        tagRepo = mock(TagRepository.class);
+        postRepo = mock(PostRepository.class);
+        replyRepo = mock(ReplyRepository.class);
+        when(tagRepo.findTagUsage()).thenReturn(List.of(
+                new TagUsage(10L, "java", 5L),
+                new TagUsage(11L, "spring", 7L),
+                new TagUsage(12L, "spring-security", 2L)));
+        when(replyRepo.countRepliesByPost()).thenReturn(List.of(new ReplyCount(2L, 9L)));
+        when(postRepo.findTitlesAfter(eq(Long.MIN_VALUE), any(Pageable.class))).thenReturn(List.of(
+                new PostTitle(1L, "Spring Boot startup"),
+                new PostTitle(2L, "Spring security with JWT"),
+                new PostTitle(3L, "Java streams")));
+        when(postRepo.findTitlesAfter(eq(3L), any(Pageable.class))).thenReturn(List.of());
+        index = new SuggestionIndex(tagRepo, postRepo, replyRepo);
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_RanksTagsAndTitlesByPopularityIgnoringCase() {
+        assertThat(texts(index.suggest("SPR", 10)))
+                .containsExactly("Spring security with JWT", "spring", "spring-security", "Spring Boot startup");
+        assertThat(texts(index.suggest("spring s", 10))).containsExactly("Spring security with JWT");
+        assertThat(texts(index.suggest("spr", 2))).containsExactly("Spring security with JWT", "spring");
+        assertThat(index.suggest("kotlin", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void addPost_MakesTitleVisibleAndCountsItsTags() {
+        index.addPost(post(4L, "Spring data pitfalls", spring));
+
+        assertThat(texts(index.suggest("spring d", 10))).containsExactly("Spring data pitfalls");
+        assertThat(index.suggest("spring-", 1).get(0).text()).isEqualTo("spring-security");
+        assertThat(texts(index.suggest("spring", 10)).subList(0, 2))
+                .containsExactly("Spring security with JWT", "spring");
+        assertThat(index.suggest("spring", 10).get(1).popularity()).isEqualTo(8);
+    }
+
+    @Test
+    void removePost_HidesTitleAndUpdatesTagCounts() {
+        Post renamed = post(3L, "Java streams", spring);
+        index.removePost(renamed);
+        renamed.setTitle("Kotlin sequences");
+        index.addPost(renamed);
+
+        assertThat(index.suggest("java s", 10)).isEmpty();
+        assertThat(texts(index.suggest("kotlin", 10))).containsExactly("Kotlin sequences");
+        assertThat(index.suggest("spring", 10).get(1).popularity()).isEqualTo(7);
+    }
+
+    @Test
+    void adjustReplies_MovesTitleWithItsReplyCount() {
+        index.adjustReplies(1L, "Spring Boot startup", 10);
+
+        assertThat(texts(index.suggest("spring", 10)).get(0)).isEqualTo("Spring Boot startup");
+        assertThat(index.suggest("spring b", 1).get(0).popularity()).isEqualTo(10);
+
+        index.adjustReplies(1L, "Spring Boot startup", -1);
+        index.adjustReplies(3L, "Java streams", -1);
+        index.adjustReplies(99L, "Not indexed", 1);
+
+        assertThat(index.suggest("spring b", 1).get(0).popularity()).isEqualTo(9);
+        assertThat(index.suggest("java s", 1).get(0).popularity()).isZero();
+        assertThat(index.suggest("not", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_StaysCorrectForPopularPrefixesAcrossMerges() {
+        List<PostTitle> titles = new ArrayList<>();
+        List<ReplyCount> replies = new ArrayList<>();
+        for (long id = 1; id <= 3 * SuggestionIndex.SCAN_LIMIT; id++) {
+            titles.add(new PostTitle(id, "How to " + id));
+            replies.add(new ReplyCount(id, id % 100));
+        }
+        when(tagRepo.findTagUsage()).thenReturn(List.of());
+        when(replyRepo.countRepliesByPost()).thenReturn(replies);
+        when(postRepo.findTitlesAfter(eq(Long.MIN_VALUE), any(Pageable.class))).thenReturn(titles);
+        when(postRepo.findTitlesAfter(eq(3L * SuggestionIndex.SCAN_LIMIT), any(Pageable.class))).thenReturn(List.of());
+        index.rebuild();
+
+        assertThat(texts(index.suggest("h", 3))).containsExactly("How to 1099", "How to 1199", "How to 1299");
+
+        for (long id = 100_000; id <= 100_000 + SuggestionIndex.MERGE_THRESHOLD; id++) {
+            Post post = post(id, "How to " + id);
+            post.setReplyCount(1);
+            index.addPost(post);
+        }
+        index.removePost(post(1099L, "How to 1099"));
+
+        assertThat(texts(index.suggest("how", 2))).containsExactly("How to 1199", "How to 1299");
+        assertThat(texts(index.suggest("how to 104096", 10))).containsExactly("How to 104096");
+    }
+
+    private List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+
+    private Post post(Long id, String title, Tag... tags) {
+        return new Post(id, title, "body", author, new HashSet<>(Set.of(tags)), new HashSet<>());
+    }
+}
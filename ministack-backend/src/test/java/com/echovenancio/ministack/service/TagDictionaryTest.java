@@ -0,0 +1,62 @@
+package com.echovenancio.ministack.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.echovenancio.ministack.entity.Tag;
+import com.echovenancio.ministack.repository.TagRepository;
+
+class TagDictionaryTest {
+
+    private TagRepository tagRepo;
+    private TagDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        tagRepo = mock(TagRepository.class);
+        when(tagRepo.findAll()).thenReturn(List.of(new Tag(10L, "java"), new Tag(11L, "spring")));
+        dictionary = new TagDictionary(tagRepo);
+        dictionary.refresh();
+    }
+
+    @Test
+    void resolve_KnownNamesCostNoQuery() {
+        Map<String, Tag> tags = dictionary.resolve(List.of("java", "spring"));
+
+        assertThat(tags.keySet()).containsExactly("java", "spring");
+        assertThat(tags.get("spring").getId()).isEqualTo(11L);
+        verify(tagRepo, never()).findByNameIn(anyCollection());
+    }
+
+    @Test
+    void resolve_LooksUpMissesInOneBatchAndRemembersThem() {
+        when(tagRepo.findByNameIn(List.of("docker", "unknown"))).thenReturn(List.of(new Tag(12L, "docker")));
+
+        Map<String, Tag> first = dictionary.resolve(List.of("java", "docker", "unknown"));
+        Map<String, Tag> second = dictionary.resolve(List.of("docker"));
+
+        assertThat(first.keySet()).containsExactly("java", "docker");
+        assertThat(second.get("docker").getId()).isEqualTo(12L);
+        verify(tagRepo, times(1)).findByNameIn(anyCollection());
+    }
+
+    @Test
+    void refresh_DropsTagsThatNoLongerExist() {
+        when(tagRepo.findAll()).thenReturn(List.of(new Tag(10L, "java")));
+
+        dictionary.refresh();
+
+        assertThat(dictionary.resolve(List.of("spring"))).isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package com.echovenancio.ministack.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class AfterCommitTest {
+
+    private final List<String> ran = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void run_OutsideTransactionRunsRightAway() {
+        AfterCommit.run(() -> ran.add("index"));
+
+        assertThat(ran).containsExactly("index");
+    }
+
+    @Test
+    void run_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(() -> ran.add("index"));
+
+        assertThat(ran).isEmpty();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertThat(ran).containsExactly("index");
+    }
+
+    @Test
+    void run_DroppedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(() -> ran.add("index"));
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(ran).isEmpty();
+    }
+}
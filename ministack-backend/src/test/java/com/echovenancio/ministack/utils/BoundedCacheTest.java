@@ -0,0 +1,66 @@
+package com.echovenancio.ministack.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void get_ReturnsValueUntilItExpires() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofSeconds(5), now::get);
+        cache.put("a", 1);
+
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(cache.get("a")).isEqualTo(1);
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.stats()).isEqualTo(new BoundedCache.Stats(1, 1, 1, 0));
+    }
+
+    @Test
+    void put_ShorterEntryTtlWinsButNeverExtendsCacheTtl() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofSeconds(5), now::get);
+        cache.put("short", 1, Duration.ofSeconds(2));
+        cache.put("long", 2, Duration.ofHours(1));
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isEqualTo(2);
+
+        now.addAndGet(Duration.ofSeconds(3).toNanos());
+        assertThat(cache.get("long")).isNull();
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedWhenFull() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, Duration.ofMinutes(1), now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateIf_RemovesOnlyMatchingKeys() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMinutes(1), now::get);
+        cache.put("java:1", 1);
+        cache.put("java:2", 2);
+        cache.put("spring:1", 3);
+
+        assertThat(cache.invalidateIf(key -> key.startsWith("java:"))).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("spring:1")).isEqualTo(3);
+    }
+}
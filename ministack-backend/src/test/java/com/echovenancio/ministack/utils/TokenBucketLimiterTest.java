@@ -0,0 +1,55 @@
+package com.echovenancio.ministack.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    // 3 tokens, one more every 20 seconds.
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(3, 3, 4, now::get);
+
+    @Test
+    void tryAcquire_AllowsBurstThenReportsWaitForNextToken() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isEqualTo(Duration.ofSeconds(20).toNanos());
+        // Other keys have their own buckets.
+        assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+    }
+
+    @Test
+    void tryAcquire_RefillsLazilyUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("user@example.com");
+        }
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(limiter.tryAcquire("user@example.com")).isZero();
+        assertThat(limiter.tryAcquire("user@example.com")).isEqualTo(Duration.ofSeconds(10).toNanos());
+
+        now.addAndGet(Duration.ofHours(1).toNanos());
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("user@example.com")).isZero();
+        }
+        assertThat(limiter.tryAcquire("user@example.com")).isPositive();
+    }
+
+    @Test
+    void evictIdle_DropsOnlyBucketsThatHaveRefilled() {
+        limiter.tryAcquire("idle");
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+
+        assertThat(limiter.evictIdle()).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+}